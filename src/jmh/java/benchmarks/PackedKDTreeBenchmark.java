@@ -0,0 +1,103 @@
+package benchmarks;
+
+import benchmarks.SearchListenerBenchmark.Point;
+import data_structures.kd_tree.KDNode;
+import data_structures.kd_tree.KDTree;
+import data_structures.kd_tree.PackedKDTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dual-tree operations of {@link PackedKDTree} against the same answers built from one
+ * {@link KDTree} query per point: the all-pairs k-nearest-neighbor graph against per-point
+ * {@link KDTree#findKNearestNeighbors(KDNode, int)}, and the spatial join against per-point
+ * {@link KDTree#radiusSearch(KDNode, double)}. Points are uniform in the unit cube; the default radius averages
+ * about ten matches per point.
+ *
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackedKDTreeBenchmark {
+
+    @Param({"100000"})
+    public int pointCount;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"0.03"})
+    public double radius;
+
+    private List<Point> points;
+    private List<Point> otherPoints;
+    private KDTree<Point> tree;
+    private PackedKDTree<Point> packed;
+    private PackedKDTree<Point> otherPacked;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        points = randomPoints(random, pointCount);
+        otherPoints = randomPoints(random, pointCount);
+        tree = new KDTree<>(new ArrayList<>(points), 2);
+        packed = tree.pack();
+        otherPacked = new KDTree<>(new ArrayList<>(otherPoints), 2).pack();
+    }
+
+    /**
+     * Every point's k nearest neighbors, from one dual-tree traversal.
+     */
+    @Benchmark
+    public int allKNearestNeighborsDualTree() {
+        return packed.findAllKNearestNeighbors(k).size();
+    }
+
+    /**
+     * Every point's k nearest neighbors, from one query per point.
+     */
+    @Benchmark
+    public int allKNearestNeighborsPerPoint() {
+        int pairs = 0;
+        for (Point point : points) {
+            pairs += tree.findKNearestNeighbors(point, k).size();
+        }
+        return pairs;
+    }
+
+    /**
+     * Every pair within the radius, one point from each set, from one dual-tree traversal.
+     */
+    @Benchmark
+    public int spatialJoinDualTree() {
+        return otherPacked.spatialJoin(packed, radius).size();
+    }
+
+    /**
+     * Every pair within the radius, one point from each set, from one radius search per point of the other set.
+     */
+    @Benchmark
+    public int spatialJoinPerPoint() {
+        int pairs = 0;
+        for (Point point : otherPoints) {
+            pairs += tree.radiusSearch(point, radius).size();
+        }
+        return pairs;
+    }
+
+    private static List<Point> randomPoints(Random random, int count) {
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,265 @@
+package benchmarks;
+
+import algorithms.AStar;
+import data_structures.graph.Edge;
+import data_structures.graph.Vertex;
+import data_structures.kd_tree.KDNode;
+import data_structures.kd_tree.KDTree;
+import instrumentation.SearchListener;
+import instrumentation.SearchMetrics;
+import instrumentation.SearchStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the search instrumentation hooks. Each search runs with the {@link SearchListener#NO_OP}
+ * listener (hooks disabled) and with a {@link SearchMetrics} listener (hooks enabled); the counter micro-benchmarks
+ * compare a loop that updates the shared disabled counters against the same loop without them.
+ *
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchListenerBenchmark {
+    private static final int GRID_SIDE = 100;
+    private static final int KD_POINTS = 100_000;
+    private static final int COUNTER_LOOP = 1_000;
+
+    @Param({"disabled", "enabled"})
+    public String hooks;
+
+    private List<GridVertex> grid;
+    private AStar<GridVertex, GridEdge> aStar;
+    private KDTree<Point> kdTree;
+    private Point[] kdTargets;
+    private int nextTarget;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SearchListener listener = hooks.equals("enabled") ? new SearchMetrics() : SearchListener.NO_OP;
+
+        grid = new ArrayList<>(GRID_SIDE * GRID_SIDE);
+        for (int i = 0; i < GRID_SIDE * GRID_SIDE; i++) {
+            grid.add(new GridVertex(Integer.toString(i)));
+        }
+        for (int row = 0; row < GRID_SIDE; row++) {
+            for (int col = 0; col < GRID_SIDE; col++) {
+                int index = row * GRID_SIDE + col;
+                if (col + 1 < GRID_SIDE) {
+                    link(grid.get(index), grid.get(index + 1), 1 + random.nextInt(9));
+                }
+                if (row + 1 < GRID_SIDE) {
+                    link(grid.get(index), grid.get(index + GRID_SIDE), 1 + random.nextInt(9));
+                }
+            }
+        }
+        aStar = new AStar<>((v1, v2) -> 0.0);
+        aStar.setSearchListener(listener);
+
+        List<Point> points = new ArrayList<>(KD_POINTS);
+        for (int i = 0; i < KD_POINTS; i++) {
+            points.add(new Point(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+        }
+        kdTree = new KDTree<>(points, 2);
+        kdTree.setSearchListener(listener);
+        kdTargets = new Point[1024];
+        for (int i = 0; i < kdTargets.length; i++) {
+            kdTargets[i] = new Point(random.nextDouble(), random.nextDouble(), random.nextDouble());
+        }
+    }
+
+    /**
+     * A corner-to-corner shortest path across the grid.
+     */
+    @Benchmark
+    public Object aStarShortestPath() {
+        aStar.findShortestPath(grid.get(0), grid.get(grid.size() - 1));
+        return aStar.getOutcome();
+    }
+
+    /**
+     * Ten nearest neighbors of a random point.
+     */
+    @Benchmark
+    public Object kdTreeNearestNeighbors() {
+        Point target = kdTargets[nextTarget++ & (kdTargets.length - 1)];
+        return kdTree.findKNearestNeighbors(target, 10);
+    }
+
+    /**
+     * A loop doing the same work as {@link #disabledCounterLoop()}, without updating counters.
+     */
+    @Benchmark
+    public long baselineLoop() {
+        long sum = 0;
+        for (int i = 0; i < COUNTER_LOOP; i++) {
+            sum += i ^ (sum >>> 3);
+        }
+        return sum;
+    }
+
+    /**
+     * A loop updating the shared disabled counters on every iteration, as a search's inner loop does.
+     */
+    @Benchmark
+    public long disabledCounterLoop() {
+        SearchStats stats = SearchStats.DISABLED;
+        long sum = 0;
+        for (int i = 0; i < COUNTER_LOOP; i++) {
+            stats.edgeRelaxed();
+            stats.heapPush();
+            sum += i ^ (sum >>> 3);
+        }
+        return sum;
+    }
+
+    private static void link(GridVertex a, GridVertex b, double weight) {
+        a.addEdge(new GridEdge(a, b, weight));
+        b.addEdge(new GridEdge(b, a, weight));
+    }
+
+    /**
+     * A grid vertex.
+     */
+    static final class GridVertex implements Vertex<GridEdge> {
+        private final String id;
+        private final List<GridEdge> edges = new ArrayList<>(4);
+
+        GridVertex(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getID() {
+            return id;
+        }
+
+        @Override
+        public List<GridEdge> getEdges() {
+            return edges;
+        }
+
+        @Override
+        public void addEdge(GridEdge edge) {
+            edges.add(edge);
+        }
+
+        @Override
+        public void removeEdge(GridEdge edge) {
+            edges.remove(edge);
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * A directed grid edge.
+     */
+    static final class GridEdge implements Edge<GridVertex> {
+        private final GridVertex start;
+        private final GridVertex end;
+        private final double weight;
+
+        GridEdge(GridVertex start, GridVertex end, double weight) {
+            this.start = start;
+            this.end = end;
+            this.weight = weight;
+        }
+
+        @Override
+        public double getWeight() {
+            return weight;
+        }
+
+        @Override
+        public GridVertex getStart() {
+            return start;
+        }
+
+        @Override
+        public GridVertex getEnd() {
+            return end;
+        }
+
+        @Override
+        public GridVertex getOpposite(GridVertex curr) {
+            return curr == start ? end : start;
+        }
+
+        @Override
+        public String getEdgeLabel() {
+            return start.getID() + "-" + end.getID();
+        }
+    }
+
+    /**
+     * A three-dimensional point.
+     */
+    static final class Point implements KDNode {
+        private KDNode leftChild;
+        private KDNode rightChild;
+        private double[] coordinate;
+        private String data = "";
+
+        Point(double x, double y, double z) {
+            this.coordinate = new double[]{x, y, z};
+        }
+
+        @Override
+        public KDNode getLeftChild() {
+            return leftChild;
+        }
+
+        @Override
+        public void setLeftChild(KDNode leftChild) {
+            this.leftChild = leftChild;
+        }
+
+        @Override
+        public KDNode getRightChild() {
+            return rightChild;
+        }
+
+        @Override
+        public void setRightChild(KDNode rightChild) {
+            this.rightChild = rightChild;
+        }
+
+        @Override
+        public double[] getCoordinate() {
+            return coordinate;
+        }
+
+        @Override
+        public void setCoordinate(double[] coordinate) {
+            this.coordinate = coordinate;
+        }
+
+        @Override
+        public String getData() {
+            return data;
+        }
+
+        @Override
+        public void setData(String data) {
+            this.data = data;
+        }
+
+        @Override
+        public void printContents() {
+            System.out.println(data);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package benchmarks;
+
+import algorithms.ConnectedComponents;
+import data_structures.graph.Edge;
+import data_structures.union_find.ArrayUnionFind;
+import data_structures.union_find.ConcurrentUnionFind;
+import data_structures.union_find.UnionFind;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the lock-free {@link ConcurrentUnionFind} against the sequential {@link ArrayUnionFind}, both on one thread
+ * and with the edges unioned on several threads, and the parallel connected-components driver against the
+ * sequential one. The graph is a random multigraph with twice as many edges as vertices.
+ *
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnionFindBenchmark {
+
+    @Param({"1000000"})
+    public int vertexCount;
+
+    private int[] starts;
+    private int[] ends;
+    private List<IndexEdge> edges;
+
+    /**
+     * The number of worker threads for the parallel benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class Parallelism {
+        @Param({"2", "4", "8"})
+        public int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setUp() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int edgeCount = 2 * vertexCount;
+        starts = new int[edgeCount];
+        ends = new int[edgeCount];
+        edges = new ArrayList<>(edgeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            starts[i] = random.nextInt(vertexCount);
+            ends[i] = random.nextInt(vertexCount);
+            edges.add(new IndexEdge(starts[i], ends[i]));
+        }
+    }
+
+    /**
+     * The sequential baseline.
+     */
+    @Benchmark
+    public int arrayUnionFind() {
+        return unionAll(new ArrayUnionFind(vertexCount), 0, starts.length);
+    }
+
+    /**
+     * The lock-free union-find on one thread, i.e. the cost of its atomics without contention.
+     */
+    @Benchmark
+    public int concurrentUnionFindOneThread() {
+        return unionAll(new ConcurrentUnionFind(vertexCount), 0, starts.length);
+    }
+
+    /**
+     * The lock-free union-find with the edges split into one chunk per thread.
+     */
+    @Benchmark
+    public int concurrentUnionFindParallel(Parallelism parallelism) throws Exception {
+        UnionFind unionFind = new ConcurrentUnionFind(vertexCount);
+        int chunkSize = (starts.length + parallelism.threads - 1) / parallelism.threads;
+        parallelism.pool.submit(() -> IntStream.range(0, parallelism.threads).parallel().forEach(chunk ->
+                unionAll(unionFind, chunk * chunkSize, Math.min(starts.length, (chunk + 1) * chunkSize)))).get();
+        return unionFind.getSetCount();
+    }
+
+    /**
+     * The sequential connected-components driver, including vertex indexing and labelling.
+     */
+    @Benchmark
+    public int componentsSequential() {
+        ConnectedComponents<Integer, IndexEdge> components = new ConnectedComponents<>(edges);
+        components.findComponents();
+        return components.getComponentCount();
+    }
+
+    /**
+     * The parallel connected-components driver, including vertex indexing and labelling.
+     */
+    @Benchmark
+    public int componentsParallel(Parallelism parallelism) {
+        ConnectedComponents<Integer, IndexEdge> components = new ConnectedComponents<>(edges);
+        components.findComponentsInParallel(parallelism.threads);
+        return components.getComponentCount();
+    }
+
+    private int unionAll(UnionFind unionFind, int from, int to) {
+        for (int i = from; i < to; i++) {
+            unionFind.union(starts[i], ends[i]);
+        }
+        return unionFind.getSetCount();
+    }
+
+    /**
+     * An unweighted edge between two vertex indices.
+     */
+    static final class IndexEdge implements Edge<Integer> {
+        private final Integer start;
+        private final Integer end;
+
+        IndexEdge(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public double getWeight() {
+            return 1.0;
+        }
+
+        @Override
+        public Integer getStart() {
+            return start;
+        }
+
+        @Override
+        public Integer getEnd() {
+            return end;
+        }
+
+        @Override
+        public Integer getOpposite(Integer curr) {
+            return curr.equals(start) ? end : start;
+        }
+
+        @Override
+        public String getEdgeLabel() {
+            return start + "-" + end;
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package algorithms;
 
 import algorithms.util.Penalizer;
+import algorithms.util.SearchBudget;
+import algorithms.util.SearchOutcome;
 import algorithms.util.ShortestPathFinder;
 import data_structures.graph.Edge;
+import data_structures.graph.EdgeWeightFunction;
 import data_structures.graph.Vertex;
+import instrumentation.SearchListener;
+import instrumentation.SearchStats;
+import instrumentation.SearchType;
 
 import java.util.*;
 
 /**
  * An object-encapsulated shortest-path finder. Specifically, runs A* algorithm
- * to find, print, and return the shortest path between two vertices.
+ * to find, print, and return the shortest path between two vertices. A search
+ * ends when the end vertex is settled (polled from the frontier), or early once
+ * its {@link SearchBudget} is spent. Edge weights come from an
+ * {@link EdgeWeightFunction}, by default each edge's static weight.
  *
  * @param <V> The vertex that this finder will process.
  * @param <E> The edge that this finder will process.
@@ -22,8 +31,12 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
     private Map<V, Edge<V>> prevEdgeMap;
     private V mostRecentStart;
     private V mostRecentEnd;
-    private Comparator<V> distanceComparator;
+    private SearchOutcome mostRecentOutcome;
     private Penalizer<V> penalizer;
+    private SearchBudget searchBudget;
+    private EdgeWeightFunction<? super E> weightFunction = EdgeWeightFunction.staticWeights();
+    private double departureTime;
+    private SearchListener searchListener = SearchListener.NO_OP;
 
     /**
      * Initializes the source and target nodes of the A* routine.
@@ -32,8 +45,58 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
      *                  shortest path
      */
     public AStar(Penalizer<V> penalizer) {
-        this.distanceComparator = new DistanceComparator();
+        this(penalizer, SearchBudget.unlimited());
+    }
+
+    /**
+     * Initializes an A* routine whose searches are limited by a budget.
+     *
+     * @param penalizer    penalizes nodes depending on their likelihood of being in
+     *                     shortest path
+     * @param searchBudget the limits on each search
+     */
+    public AStar(Penalizer<V> penalizer, SearchBudget searchBudget) {
         this.penalizer = penalizer;
+        this.searchBudget = searchBudget;
+    }
+
+    /**
+     * Mutator of the weight function evaluated as each edge is relaxed.
+     *
+     * @param weightFunction The weight function, e.g. a column of an
+     *                       {@link data_structures.graph.EdgeWeightTable}.
+     */
+    public void setWeightFunction(EdgeWeightFunction<? super E> weightFunction) {
+        this.weightFunction = weightFunction;
+    }
+
+    /**
+     * Mutator of the time at which searches leave the start vertex. Each edge is
+     * weighed at the departure time plus the cost of the path so far, which is
+     * its exact entry time when the penalizer is zero.
+     *
+     * @param departureTime The departure time; only used by time-dependent weights.
+     */
+    public void setDepartureTime(double departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    /**
+     * Mutator of the limits on each search.
+     *
+     * @param searchBudget The budget; {@link SearchBudget#unlimited()} removes every limit.
+     */
+    public void setSearchBudget(SearchBudget searchBudget) {
+        this.searchBudget = searchBudget;
+    }
+
+    /**
+     * Mutator of the listener notified with each search's counters and latency.
+     *
+     * @param searchListener The listener; {@link SearchListener#NO_OP} disables reporting.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
     }
 
     /**
@@ -44,55 +107,77 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
      */
     @Override
     public void findShortestPath(V start, V end) {
+        boolean reporting = searchListener.isEnabled();
+        long startNanos = reporting ? System.nanoTime() : 0L;
+        SearchStats stats = reporting ? new SearchStats() : SearchStats.DISABLED;
         this.distMap = new HashMap<>();
         this.prevEdgeMap = new HashMap<>();
         this.mostRecentStart = start;
         this.mostRecentEnd = end;
+        this.mostRecentOutcome = SearchOutcome.UNREACHABLE;
 
-        boolean endFlag = false;
-        PriorityQueue<V> frontier = new PriorityQueue<>((a, b) -> distanceComparator.compare(a, b));
+        SearchBudget budget = searchBudget;
+        long deadlineNanos = budget.hasDeadline() ? System.nanoTime() + budget.getMaxDurationNanos() : 0L;
+        long settledCount = 0;
+        PriorityQueue<FrontierEntry<V>> frontier = new PriorityQueue<>();
         Set<V> visited = new HashSet<>();
 
         distMap.put(start, 0.0);
-        frontier.add(start);
-        while (!frontier.isEmpty() && !endFlag) {
-            V closest = frontier.poll();
-            visited.add(closest);
-            List<E> edges = closest.getEdges();
-            double currDist = distMap.get(closest);
-            for (E edge : edges) {
+        frontier.add(new FrontierEntry<>(start, 0.0));
+        stats.heapPush();
+        while (!frontier.isEmpty()) {
+            FrontierEntry<V> closest = frontier.poll();
+            stats.heapPop();
+            // Stale entry; this vertex was already settled at a shorter distance.
+            if (visited.contains(closest.vertex)) {
+                continue;
+            }
+            // Budget spent. For the distance limit, every remaining vertex is at least this far away.
+            if (closest.dist > budget.getMaxDistance() || settledCount >= budget.getMaxSettledNodes()
+                    || (budget.hasDeadline() && System.nanoTime() - deadlineNanos > 0)) {
+                mostRecentOutcome = SearchOutcome.BUDGET_EXHAUSTED;
+                break;
+            }
+            visited.add(closest.vertex);
+            settledCount++;
+            stats.nodeSettled();
+            if (closest.vertex.equals(end)) {
+                // If you don't do this, we never update end -- the vertex we encounter in our search is not the
+                // same object as end, even if they have the same field values.
+                mostRecentEnd = closest.vertex;
+                mostRecentOutcome = SearchOutcome.FOUND;
+                break;
+            }
+            for (E edge : closest.vertex.getEdges()) {
+                stats.edgeRelaxed();
                 V neighbor = edge.getEnd();
-                distMap.putIfAbsent(neighbor, Double.MAX_VALUE);
-                double newDist = currDist + edge.getWeight() + penalizer.computePenalty(neighbor,
-                        mostRecentEnd);
-                if (newDist < distMap.get(neighbor) && !visited.contains(neighbor)) {
+                if (visited.contains(neighbor)) {
+                    continue;
+                }
+                double newDist = closest.dist + weightFunction.getWeight(edge, departureTime + closest.dist)
+                        + penalizer.computePenalty(neighbor, mostRecentEnd);
+                Double oldDist = distMap.get(neighbor);
+                if (oldDist == null || newDist < oldDist) {
                     distMap.put(neighbor, newDist);
                     prevEdgeMap.put(neighbor, edge);
-                    frontier.add(neighbor);
-                    if (neighbor.equals(end)) {
-                        // If you don't do this, we never update end -- the currV we encounter in our
-                        // search is not the
-                        // same object as end, even if they have the same field values.
-                        mostRecentEnd = neighbor;
-                        // A flag helps end the outer loop; else, we just break from this edge loop but
-                        // continue
-                        // the broader loop.
-                        endFlag = true;
-                        break;
-                    }
+                    frontier.add(new FrontierEntry<>(neighbor, newDist));
+                    stats.heapPush();
                 }
             }
         }
+        if (reporting) {
+            searchListener.onSearchComplete(SearchType.SHORTEST_PATH, stats, System.nanoTime() - startNanos);
+        }
     }
 
     /**
      * Retrieves set of vertices on shortest path from source to target.
      *
-     * @return A path representation of the shortest-path.
+     * @return A path representation of the shortest-path, or an empty list if no path could be formed
+     * (within budget).
      */
     public List<V> getShortestPath() {
-        if (prevEdgeMap.get(mostRecentEnd) == null) {
-            System.out.println("ERROR: No path could be formed.");
+        if (mostRecentOutcome != SearchOutcome.FOUND || prevEdgeMap.get(mostRecentEnd) == null) {
             return Collections.emptyList();
         }
         return getPathHelper(mostRecentEnd);
@@ -114,6 +199,16 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
         return recursiveList;
     }
 
+    /**
+     * Accessor of how the most recent search ended.
+     *
+     * @return The outcome of the most recent search.
+     */
+    @Override
+    public SearchOutcome getOutcome() {
+        return mostRecentOutcome;
+    }
+
     /**
      * Prints shortest-path, starting from first in path. If no connection was
      * possible, prints an error string.
@@ -122,8 +217,11 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
      */
     @Override
     public String printShortestPath() {
-        return prevEdgeMap.get(mostRecentEnd) != null ? printHelper(mostRecentEnd).trim()
-                : mostRecentStart.getID() + " -/- " + mostRecentEnd.getID();
+        if (mostRecentOutcome == SearchOutcome.FOUND && prevEdgeMap.get(mostRecentEnd) != null) {
+            return printHelper(mostRecentEnd).trim();
+        }
+        String noPath = mostRecentStart.getID() + " -/- " + mostRecentEnd.getID();
+        return mostRecentOutcome == SearchOutcome.BUDGET_EXHAUSTED ? noPath + " (no path within budget)" : noPath;
     }
 
     /**
@@ -141,29 +239,4 @@ public class AStar<V extends Vertex<E>, E extends Edge<V>> implements ShortestPa
                 curr).getID() + " -> " + curr.getID() + " : " + prevEdgeMap.get(curr).getEdgeLabel()
                 + "\n";
     }
-
-    /**
-     * Comparator for distances between vertices. Comparisons are performed by
-     * comparing the distances between the two nodes and some shared source node.
-     *
-     * @author Kalli Feinberg and Joshua Nathan Mugerwa
-     * @version 1.0
-     */
-    private class DistanceComparator implements Comparator<V> {
-        /**
-         * Compares the distances (from some source) of two vertices.
-         *
-         * @param v1 The first vertex.
-         * @param v2 The second vertex.
-         * @return 0 if v1 and v2 are distance- equivalent, 1 if v1 is less than v2, -1
-         * else.
-         */
-        @Override
-        public int compare(V v1, V v2) {
-            if (distMap.containsKey(v1) && distMap.containsKey(v2)) {
-                return distMap.get(v1).compareTo(distMap.get(v2));
-            }
-            return -1;
-        }
-    }
 }
@@ -0,0 +1,138 @@
+package algorithms;
+
+import algorithms.util.Penalizer;
+import algorithms.util.RouteCache;
+import algorithms.util.SearchOutcome;
+import algorithms.util.ShortestPathFinder;
+import data_structures.graph.Edge;
+import data_structures.graph.EdgeWeightFunction;
+import data_structures.graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A caching decorator for shortest-path finders. Popular (start, end) queries are answered from a shared
+ * {@link RouteCache} instead of being recomputed.
+ * <p>
+ * Safe to use from many threads: each thread gets its own underlying finder and its own most-recent result, so
+ * {@link #getShortestPath()} and {@link #printShortestPath()} report the last query made by the calling thread.
+ *
+ * @param <V> The vertex that this finder will process.
+ * @param <E> The edge that this finder will process.
+ * @version 1.0
+ */
+public class CachingShortestPathFinder<V extends Vertex<E>, E extends Edge<V>> implements ShortestPathFinder<V, E> {
+
+    private final Penalizer<V> penalizer;
+    private final EdgeWeightFunction<? super E> weightFunction;
+    private final RouteCache<V> cache;
+    private final ThreadLocal<ShortestPathFinder<V, E>> delegates;
+    private final ThreadLocal<RouteCache.Route<V>> mostRecentRoute;
+
+    /**
+     * Constructs a caching finder whose underlying finders use static edge weights.
+     *
+     * @param finderFactory Creates an underlying finder for a penalizer, e.g. {@code AStar::new}.
+     * @param penalizer     The penalizer used by every underlying finder; part of the cache key.
+     * @param cache         The route cache; may be shared with other caching finders.
+     */
+    public CachingShortestPathFinder(Function<Penalizer<V>, ? extends ShortestPathFinder<V, E>> finderFactory,
+                                     Penalizer<V> penalizer, RouteCache<V> cache) {
+        this(finderFactory, penalizer, null, cache);
+    }
+
+    /**
+     * Constructs a caching finder whose underlying finders use a weight function, e.g. one column of an
+     * {@link data_structures.graph.EdgeWeightTable}. Finders with the same penalizer but different weight functions
+     * can then share one cache without mixing up their routes.
+     *
+     * @param finderFactory  Creates an underlying finder for a penalizer; it must apply weightFunction (and one fixed
+     *                       departure time, for time-dependent weights).
+     * @param penalizer      The penalizer used by every underlying finder; part of the cache key.
+     * @param weightFunction The weight function used by every underlying finder; part of the cache key. Null for
+     *                       static edge weights.
+     * @param cache          The route cache; may be shared with other caching finders.
+     */
+    public CachingShortestPathFinder(Function<Penalizer<V>, ? extends ShortestPathFinder<V, E>> finderFactory,
+                                     Penalizer<V> penalizer, EdgeWeightFunction<? super E> weightFunction,
+                                     RouteCache<V> cache) {
+        this.penalizer = penalizer;
+        this.weightFunction = weightFunction;
+        this.cache = cache;
+        this.delegates = ThreadLocal.withInitial(() -> finderFactory.apply(penalizer));
+        this.mostRecentRoute = new ThreadLocal<>();
+    }
+
+    /**
+     * Finds the shortest path, from the cache when possible.
+     *
+     * @param start vertex of path
+     * @param end   vertex of path
+     */
+    @Override
+    public void findShortestPath(V start, V end) {
+        RouteCache.Route<V> route = cache.get(start, end, penalizer, weightFunction);
+        if (route == null) {
+            ShortestPathFinder<V, E> delegate = delegates.get();
+            delegate.findShortestPath(start, end);
+            route = new RouteCache.Route<>(delegate.getShortestPath(), delegate.printShortestPath(),
+                    delegate.getOutcome());
+            cache.put(start, end, penalizer, weightFunction, route);
+        }
+        mostRecentRoute.set(route);
+    }
+
+    /**
+     * Prints the calling thread's most recent shortest-path.
+     *
+     * @return A string representation of the shortest-path.
+     */
+    @Override
+    public String printShortestPath() {
+        return currentRoute().getPrinted();
+    }
+
+    /**
+     * Retrieves the calling thread's most recent shortest-path.
+     *
+     * @return A path representation of the shortest-path.
+     */
+    @Override
+    public List<V> getShortestPath() {
+        return new ArrayList<>(currentRoute().getPath());
+    }
+
+    /**
+     * Reports how the calling thread's most recent search ended.
+     *
+     * @return The outcome.
+     */
+    @Override
+    public SearchOutcome getOutcome() {
+        return currentRoute().getOutcome();
+    }
+
+    /**
+     * Accessor of the underlying cache, e.g. for invalidation and hit-rate metrics.
+     *
+     * @return The route cache.
+     */
+    public RouteCache<V> getCache() {
+        return cache;
+    }
+
+    /**
+     * Retrieves the calling thread's most recent route.
+     *
+     * @return The route.
+     */
+    private RouteCache.Route<V> currentRoute() {
+        RouteCache.Route<V> route = mostRecentRoute.get();
+        if (route == null) {
+            throw new IllegalStateException("No shortest path has been found on this thread.");
+        }
+        return route;
+    }
+}
@@ -0,0 +1,144 @@
+package algorithms;
+
+import data_structures.graph.Edge;
+import data_structures.union_find.ArrayUnionFind;
+import data_structures.union_find.ConcurrentUnionFind;
+import data_structures.union_find.UnionFind;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Labels the connected components of an undirected graph given as a list of edges, using union-find. The parallel
+ * driver splits the edge list into chunks that are unioned concurrently into one {@link ConcurrentUnionFind}.
+ *
+ * @param <V> The type of vertex.
+ * @param <E> The type of edge.
+ * @version 1.0
+ */
+public class ConnectedComponents<V, E extends Edge<V>> {
+    private final List<E> edges;
+    private final Map<V, Integer> vertexIndex;
+    private final List<V> vertices;
+    private int componentCount;
+
+    /**
+     * Initializes the component-finder.
+     *
+     * @param edges The set of edges to create the graph from.
+     */
+    public ConnectedComponents(List<E> edges) {
+        this.edges = new ArrayList<>(edges);
+        this.vertexIndex = new HashMap<>();
+        this.vertices = new ArrayList<>();
+        for (E edge : this.edges) {
+            indexVertex(edge.getStart());
+            indexVertex(edge.getEnd());
+        }
+    }
+
+    /**
+     * Labels every vertex with its component, on the calling thread.
+     *
+     * @return A map from each vertex to a component ID between 0 and {@link #getComponentCount()} - 1.
+     */
+    public Map<V, Integer> findComponents() {
+        UnionFind unionFind = new ArrayUnionFind(vertices.size());
+        unionRange(unionFind, 0, edges.size());
+        return label(unionFind);
+    }
+
+    /**
+     * Labels every vertex with its component, unioning edges on several threads at once.
+     *
+     * @param parallelism The number of worker threads.
+     * @return A map from each vertex to a component ID between 0 and {@link #getComponentCount()} - 1.
+     */
+    public Map<V, Integer> findComponentsInParallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least one.");
+        }
+        UnionFind unionFind = new ConcurrentUnionFind(vertices.size());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            int chunkSize = Math.max(1, (edges.size() + parallelism - 1) / parallelism);
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < edges.size(); from += chunkSize) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(from + chunkSize, edges.size());
+                chunks.add(executor.submit(() -> unionRange(unionFind, chunkFrom, chunkTo)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while finding connected components.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to find connected components.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return label(unionFind);
+    }
+
+    /**
+     * Accessor of the number of components found by the most recent call.
+     *
+     * @return The number of components.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Unions the endpoints of a contiguous range of edges.
+     *
+     * @param unionFind The union-find to update.
+     * @param from      The first edge, inclusive.
+     * @param to        The last edge, exclusive.
+     */
+    private void unionRange(UnionFind unionFind, int from, int to) {
+        for (int i = from; i < to; i++) {
+            E edge = edges.get(i);
+            unionFind.union(vertexIndex.get(edge.getStart()), vertexIndex.get(edge.getEnd()));
+        }
+    }
+
+    /**
+     * Turns set representatives into dense component IDs.
+     *
+     * @param unionFind The fully-unioned union-find.
+     * @return A map from each vertex to its component ID.
+     */
+    private Map<V, Integer> label(UnionFind unionFind) {
+        int[] rootToComponent = new int[vertices.size()];
+        Arrays.fill(rootToComponent, -1);
+        Map<V, Integer> components = new HashMap<>(vertices.size() * 2);
+        int nextComponent = 0;
+        for (int i = 0; i < vertices.size(); i++) {
+            int root = unionFind.find(i);
+            if (rootToComponent[root] < 0) {
+                rootToComponent[root] = nextComponent++;
+            }
+            components.put(vertices.get(i), rootToComponent[root]);
+        }
+        componentCount = nextComponent;
+        return components;
+    }
+
+    /**
+     * Gives a vertex a dense index the first time it is seen.
+     *
+     * @param vertex The vertex.
+     */
+    private void indexVertex(V vertex) {
+        if (!vertexIndex.containsKey(vertex)) {
+            vertexIndex.put(vertex, vertices.size());
+            vertices.add(vertex);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package algorithms;
+
+import algorithms.util.RowSink;
+import data_structures.graph.Edge;
+import data_structures.graph.Vertex;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A many-to-many distance-matrix engine. Rather than running one point-to-point search per (source, target) pair,
+ * runs a single one-to-many Dijkstra search per source which stops as soon as every target has been settled. Sources
+ * are processed in parallel.
+ * <p>
+ * Distances are pure edge-weight sums; no {@link algorithms.util.Penalizer} is applied, since a goal-directed
+ * penalty is not defined when there are many goals at once.
+ *
+ * @param <V> The vertex that this engine will process.
+ * @param <E> The edge that this engine will process.
+ * @version 1.0
+ */
+public class DistanceMatrix<V extends Vertex<E>, E extends Edge<V>> {
+
+    private final int parallelism;
+
+    /**
+     * Constructs an engine that uses one worker per available processor.
+     */
+    public DistanceMatrix() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an engine with the given number of worker threads.
+     *
+     * @param parallelism The number of sources searched concurrently.
+     */
+    public DistanceMatrix(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least one.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes the full sources-by-targets distance table.
+     *
+     * @param sources The row vertices.
+     * @param targets The column vertices.
+     * @return A row-major table; the distance from sources[i] to targets[j] is at index i * targets.size() + j.
+     * Unreachable pairs are {@link Double#POSITIVE_INFINITY}.
+     */
+    public double[] compute(List<V> sources, List<V> targets) {
+        long cells = (long) sources.size() * targets.size();
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix is too large to hold in memory; stream it to a RowSink.");
+        }
+        double[] matrix = new double[(int) cells];
+        int columns = targets.size();
+        compute(sources, targets, (sourceIndex, row) -> System.arraycopy(row, 0, matrix,
+                sourceIndex * columns, columns));
+        return matrix;
+    }
+
+    /**
+     * Computes the sources-by-targets distance table, streaming each row to a sink as soon as it (and every row
+     * before it) is ready. At most a small, parallelism-proportional number of rows are held in memory at once.
+     *
+     * @param sources The row vertices.
+     * @param targets The column vertices.
+     * @param sink    Receives each row, in source order.
+     */
+    public void compute(List<V> sources, List<V> targets, RowSink sink) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        List<V> sourceList = new ArrayList<>(sources);
+        List<V> targetList = new ArrayList<>(targets);
+        Set<V> targetSet = new HashSet<>(targetList);
+
+        if (parallelism == 1 || sourceList.size() == 1) {
+            for (int i = 0; i < sourceList.size(); i++) {
+                sink.acceptRow(i, computeRow(sourceList.get(i), targetList, targetSet));
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, sourceList.size()));
+        try {
+            // A sliding window: each time a row is handed to the sink, the row one window ahead is submitted. Memory
+            // stays bounded by the window, and a slow row only holds back the sink, never the idle workers.
+            int window = parallelism * 2;
+            ArrayDeque<Future<double[]>> inFlight = new ArrayDeque<>(window);
+            int nextToSubmit = 0;
+            for (int i = 0; i < sourceList.size(); i++) {
+                while (nextToSubmit < sourceList.size() && nextToSubmit < i + window) {
+                    V source = sourceList.get(nextToSubmit++);
+                    inFlight.add(executor.submit(() -> computeRow(source, targetList, targetSet)));
+                }
+                sink.acceptRow(i, inFlight.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing distance matrix.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compute distance matrix row.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a one-to-many Dijkstra search from source, stopping once every target has been settled.
+     *
+     * @param source     The vertex to search from.
+     * @param targetList The targets, in column order.
+     * @param targetSet  The distinct targets.
+     * @return The distances from source to each target, in column order.
+     */
+    private double[] computeRow(V source, List<V> targetList, Set<V> targetSet) {
+        Map<V, Double> distMap = new HashMap<>();
+        Map<V, Double> settled = new HashMap<>();
+        PriorityQueue<FrontierEntry<V>> frontier = new PriorityQueue<>();
+        int remainingTargets = targetSet.size();
+
+        distMap.put(source, 0.0);
+        frontier.add(new FrontierEntry<>(source, 0.0));
+        while (!frontier.isEmpty() && remainingTargets > 0) {
+            FrontierEntry<V> closest = frontier.poll();
+            // Stale entry; a shorter distance to this vertex was already settled.
+            if (settled.containsKey(closest.vertex)) {
+                continue;
+            }
+            settled.put(closest.vertex, closest.dist);
+            if (targetSet.contains(closest.vertex)) {
+                remainingTargets--;
+            }
+            for (E edge : closest.vertex.getEdges()) {
+                V neighbor = edge.getEnd();
+                if (settled.containsKey(neighbor)) {
+                    continue;
+                }
+                double newDist = closest.dist + edge.getWeight();
+                Double oldDist = distMap.get(neighbor);
+                if (oldDist == null || newDist < oldDist) {
+                    distMap.put(neighbor, newDist);
+                    frontier.add(new FrontierEntry<>(neighbor, newDist));
+                }
+            }
+        }
+
+        double[] row = new double[targetList.size()];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = settled.getOrDefault(targetList.get(j), Double.POSITIVE_INFINITY);
+        }
+        return row;
+    }
+}
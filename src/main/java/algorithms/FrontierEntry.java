@@ -0,0 +1,29 @@
+package algorithms;
+
+/**
+ * A vertex paired with its tentative distance at the time it was pushed onto a search frontier. Because the
+ * distance is a snapshot, a vertex may be on the frontier several times; stale entries are skipped when polled.
+ *
+ * @param <V> The type of vertex.
+ * @version 1.0
+ */
+final class FrontierEntry<V> implements Comparable<FrontierEntry<V>> {
+    final V vertex;
+    final double dist;
+
+    /**
+     * Constructs a frontier entry.
+     *
+     * @param vertex The vertex.
+     * @param dist   The vertex's tentative distance.
+     */
+    FrontierEntry(V vertex, double dist) {
+        this.vertex = vertex;
+        this.dist = dist;
+    }
+
+    @Override
+    public int compareTo(FrontierEntry<V> other) {
+        return Double.compare(dist, other.dist);
+    }
+}
@@ -0,0 +1,59 @@
+package algorithms;
+
+import data_structures.graph.Edge;
+import data_structures.union_find.ArrayUnionFind;
+import data_structures.union_find.UnionFind;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Kruskal's algorithm; finds a minimum spanning forest of an undirected graph given as a list of edges.
+ * Reference: https://en.wikipedia.org/wiki/Kruskal%27s_algorithm
+ *
+ * @param <V> The type of vertex.
+ * @param <E> The type of edge.
+ * @version 1.0
+ */
+public class KruskalMST<V, E extends Edge<V>> {
+    private final List<E> edges;
+
+    /**
+     * Initializes the spanning-forest finder.
+     *
+     * @param edges The set of edges to create the graph from.
+     */
+    public KruskalMST(List<E> edges) {
+        this.edges = new ArrayList<>(edges);
+    }
+
+    /**
+     * Finds a minimum spanning forest: a minimum spanning tree of every connected component.
+     *
+     * @return The forest's edges, in ascending order of weight.
+     */
+    public List<E> findMinimumSpanningForest() {
+        Map<V, Integer> vertexIndex = new HashMap<>();
+        for (E edge : edges) {
+            vertexIndex.putIfAbsent(edge.getStart(), vertexIndex.size());
+            vertexIndex.putIfAbsent(edge.getEnd(), vertexIndex.size());
+        }
+
+        // The sort dominates the running time, so it is done in parallel.
+        List<E> sorted = edges.parallelStream()
+                .sorted(Comparator.comparingDouble(Edge::getWeight))
+                .collect(Collectors.toList());
+
+        UnionFind unionFind = new ArrayUnionFind(vertexIndex.size());
+        List<E> forest = new ArrayList<>(Math.max(0, vertexIndex.size() - 1));
+        for (E edge : sorted) {
+            if (unionFind.union(vertexIndex.get(edge.getStart()), vertexIndex.get(edge.getEnd()))) {
+                forest.add(edge);
+                if (unionFind.getSetCount() == 1) {
+                    break;
+                }
+            }
+        }
+        return forest;
+    }
+}
@@ -0,0 +1,232 @@
+package algorithms;
+
+import algorithms.util.SearchBudget;
+import algorithms.util.SearchOutcome;
+import data_structures.graph.Edge;
+import data_structures.graph.EdgeWeightFunction;
+import data_structures.graph.Vertex;
+
+import java.util.*;
+
+/**
+ * A multi-criteria shortest-path finder (Martins' label-setting algorithm). Instead of one shortest path, finds every
+ * Pareto-optimal path between two vertices -- those for which no other path is at least as good on every criterion
+ * and strictly better on one (e.g. travel time vs. tolls).
+ * <p>
+ * Labels are settled in lexicographic order of their costs, so a settled label is never dominated by a later one.
+ * The first criterion is treated as time: every criterion's weight function is evaluated at the departure time plus
+ * the first cost accumulated so far.
+ *
+ * @param <V> The vertex that this finder will process.
+ * @param <E> The edge that this finder will process.
+ * @version 1.0
+ */
+public class ParetoShortestPaths<V extends Vertex<E>, E extends Edge<V>> {
+
+    private final List<EdgeWeightFunction<? super E>> criteria;
+    private SearchBudget searchBudget;
+    private SearchOutcome mostRecentOutcome;
+
+    /**
+     * Constructs a finder over the given criteria.
+     *
+     * @param criteria One weight function per criterion; the first is treated as time.
+     */
+    public ParetoShortestPaths(List<EdgeWeightFunction<? super E>> criteria) {
+        this(criteria, SearchBudget.unlimited());
+    }
+
+    /**
+     * Constructs a finder over the given criteria, limited by a budget. The budget's distance applies to the first
+     * criterion and its settled-node count to settled labels.
+     *
+     * @param criteria     One weight function per criterion; the first is treated as time.
+     * @param searchBudget The limits on each search.
+     */
+    public ParetoShortestPaths(List<EdgeWeightFunction<? super E>> criteria, SearchBudget searchBudget) {
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("At least one criterion is required.");
+        }
+        this.criteria = new ArrayList<>(criteria);
+        this.searchBudget = searchBudget;
+    }
+
+    /**
+     * Mutator of the limits on each search.
+     *
+     * @param searchBudget The budget.
+     */
+    public void setSearchBudget(SearchBudget searchBudget) {
+        this.searchBudget = searchBudget;
+    }
+
+    /**
+     * Finds the Pareto-optimal paths between two vertices.
+     *
+     * @param start         vertex of path
+     * @param end           vertex of path
+     * @param departureTime The time at which paths leave start.
+     * @return The Pareto-optimal routes, in lexicographic order of their costs; empty if end is unreachable (within
+     * budget). If the budget ran out, only part of the front may have been found; see {@link #getOutcome()}.
+     */
+    public List<ParetoRoute<V>> findParetoPaths(V start, V end, double departureTime) {
+        SearchBudget budget = searchBudget;
+        long deadlineNanos = budget.hasDeadline() ? System.nanoTime() + budget.getMaxDurationNanos() : 0L;
+        long settledCount = 0;
+        Map<V, List<Label<V>>> settled = new HashMap<>();
+        List<Label<V>> endLabels = new ArrayList<>();
+        PriorityQueue<Label<V>> frontier = new PriorityQueue<>();
+
+        mostRecentOutcome = SearchOutcome.UNREACHABLE;
+        frontier.add(new Label<>(start, new double[criteria.size()], null));
+        while (!frontier.isEmpty()) {
+            Label<V> label = frontier.poll();
+            List<Label<V>> atVertex = settled.computeIfAbsent(label.vertex, v -> new ArrayList<>());
+            // Dominated either at its own vertex, or by a path already found to the end (target pruning).
+            if (isDominated(label.costs, atVertex) || isDominated(label.costs, endLabels)) {
+                continue;
+            }
+            if (label.costs[0] > budget.getMaxDistance() || settledCount >= budget.getMaxSettledNodes()
+                    || (budget.hasDeadline() && System.nanoTime() - deadlineNanos > 0)) {
+                mostRecentOutcome = SearchOutcome.BUDGET_EXHAUSTED;
+                break;
+            }
+            atVertex.add(label);
+            settledCount++;
+            if (label.vertex.equals(end)) {
+                endLabels.add(label);
+                continue;
+            }
+            double entryTime = departureTime + label.costs[0];
+            for (E edge : label.vertex.getEdges()) {
+                V neighbor = edge.getEnd();
+                double[] costs = new double[criteria.size()];
+                for (int i = 0; i < costs.length; i++) {
+                    costs[i] = label.costs[i] + criteria.get(i).getWeight(edge, entryTime);
+                }
+                List<Label<V>> atNeighbor = settled.get(neighbor);
+                if ((atNeighbor == null || !isDominated(costs, atNeighbor)) && !isDominated(costs, endLabels)) {
+                    frontier.add(new Label<>(neighbor, costs, label));
+                }
+            }
+        }
+
+        if (mostRecentOutcome != SearchOutcome.BUDGET_EXHAUSTED && !endLabels.isEmpty()) {
+            mostRecentOutcome = SearchOutcome.FOUND;
+        }
+        List<ParetoRoute<V>> routes = new ArrayList<>(endLabels.size());
+        for (Label<V> label : endLabels) {
+            routes.add(new ParetoRoute<>(label.costs, tracePath(label)));
+        }
+        return routes;
+    }
+
+    /**
+     * Reports how the most recent search ended.
+     *
+     * @return {@link SearchOutcome#FOUND} if the whole Pareto front was found, {@link SearchOutcome#UNREACHABLE} if
+     * end cannot be reached, or {@link SearchOutcome#BUDGET_EXHAUSTED} if the budget ran out first, in which case the
+     * returned routes (if any) are Pareto-optimal but the front may be incomplete.
+     */
+    public SearchOutcome getOutcome() {
+        if (mostRecentOutcome == null) {
+            throw new IllegalStateException("No search has been run.");
+        }
+        return mostRecentOutcome;
+    }
+
+    /**
+     * Checks whether some settled label is at least as good as the given costs on every criterion.
+     *
+     * @param costs  The candidate costs.
+     * @param labels The settled labels.
+     * @return True if the candidate is dominated by (or equal to) a settled label.
+     */
+    private static boolean isDominated(double[] costs, List<? extends Label<?>> labels) {
+        for (Label<?> other : labels) {
+            boolean dominates = true;
+            for (int i = 0; i < costs.length && dominates; i++) {
+                dominates = other.costs[i] <= costs[i];
+            }
+            if (dominates) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Traces a label back to the start, collecting its vertices.
+     *
+     * @param label The final label of a path.
+     * @return The path's vertices, excluding the start (as in {@link AStar#getShortestPath()}).
+     */
+    private List<V> tracePath(Label<V> label) {
+        LinkedList<V> path = new LinkedList<>();
+        for (Label<V> curr = label; curr.predecessor != null; curr = curr.predecessor) {
+            path.addFirst(curr.vertex);
+        }
+        return path;
+    }
+
+    /**
+     * A Pareto-optimal path and its cost on every criterion.
+     *
+     * @param <V> The type of vertex on the path.
+     */
+    public static final class ParetoRoute<V> {
+        private final double[] costs;
+        private final List<V> path;
+
+        ParetoRoute(double[] costs, List<V> path) {
+            this.costs = costs;
+            this.path = Collections.unmodifiableList(path);
+        }
+
+        /**
+         * Accessor of the path's costs.
+         *
+         * @return One cost per criterion, in criteria order.
+         */
+        public double[] getCosts() {
+            return Arrays.copyOf(costs, costs.length);
+        }
+
+        /**
+         * Accessor of the path.
+         *
+         * @return The path's vertices, excluding the start.
+         */
+        public List<V> getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * A partial path: its last vertex, its costs, and the label it extends.
+     *
+     * @param <V> The type of vertex.
+     */
+    private static final class Label<V> implements Comparable<Label<V>> {
+        private final V vertex;
+        private final double[] costs;
+        private final Label<V> predecessor;
+
+        Label(V vertex, double[] costs, Label<V> predecessor) {
+            this.vertex = vertex;
+            this.costs = costs;
+            this.predecessor = predecessor;
+        }
+
+        @Override
+        public int compareTo(Label<V> other) {
+            for (int i = 0; i < costs.length; i++) {
+                int comparison = Double.compare(costs[i], other.costs[i]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package algorithms;
 
 import data_structures.graph.Vertex;
 import data_structures.graph.Edge;
+import instrumentation.SearchListener;
+import instrumentation.SearchStats;
+import instrumentation.SearchType;
 import java.util.*;
 
 /**
@@ -19,6 +22,7 @@ public class tarjansBridgeAlgorithm<V extends Vertex<E>, E extends Edge<V>> {
     private Map<V, Integer> low;  // "Lowest" reachable depth from this node.
     private Set<E> bridges;
     private V entryVertex;
+    private SearchListener searchListener = SearchListener.NO_OP;
 
     /**
      * Initializes the bridge-finder.
@@ -54,25 +58,43 @@ public class tarjansBridgeAlgorithm<V extends Vertex<E>, E extends Edge<V>> {
      * @return The set of bridge edges.
      */
     public Set<E> findBridges() {
-        dfsHelper(dummy, entryVertex, initialDepth);
+        boolean reporting = searchListener.isEnabled();
+        long startNanos = reporting ? System.nanoTime() : 0L;
+        SearchStats stats = reporting ? new SearchStats() : SearchStats.DISABLED;
+        dfsHelper(dummy, entryVertex, initialDepth, stats);
+        if (reporting) {
+            searchListener.onSearchComplete(SearchType.BRIDGES, stats, System.nanoTime() - startNanos);
+        }
         return bridges;
     }
 
+    /**
+     * Mutator of the listener notified with each search's counters and latency.
+     *
+     * @param searchListener The listener; {@link SearchListener#NO_OP} disables reporting.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
     /**
      * Performs DFS, finding bridges along the way.
      *
      * @param source The source (outgoing) vertex of the current call.
      * @param target The target (incoming) vertex of the current call.
      * @param depth  The depth of the current call (same idea as in level-order traversal of a tree).
+     * @param stats  The counters of the current search.
      */
-    private void dfsHelper(V source, V target, int depth) {
+    private void dfsHelper(V source, V target, int depth, SearchStats stats) {
+        stats.nodeVisited();
         disc.put(target, depth + 1);
         low.put(target, depth + 1);
         for (E edge : graph.get(target)) {
+            stats.edgeRelaxed();
             V nei = edge.getOpposite(target);
             if (nei == source) continue;
             else if (!disc.containsKey(nei)) {
-                dfsHelper(target, nei, depth + 1);
+                dfsHelper(target, nei, depth + 1, stats);
                 low.replace(target, Math.min(low.get(target), low.get(nei)));
                 if (low.get(nei) > disc.get(target)) {
                     bridges.add(edge);
@@ -0,0 +1,112 @@
+package algorithms.util;
+
+/**
+ * An approximate frequency counter (a count-min sketch with small saturating counters and periodic aging), used as
+ * a TinyLFU-style admission filter. Keys seen only once -- e.g. one-off scan traffic -- have a low estimate and can be
+ * kept out of a cache, while popular keys quickly build up a high one.
+ * <p>
+ * Counters saturate at 15, so they are packed sixteen to a {@code long}: a sketch for a million keys takes 2 MB.
+ * <p>
+ * Updates are intentionally unsynchronized: a lost increment under contention only makes an estimate slightly low.
+ *
+ * @version 1.0
+ */
+public class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 24;
+    private static final long HALF_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Constructs a sketch sized for roughly the given number of distinct hot keys.
+     *
+     * @param expectedKeys The number of keys the sketch should track accurately.
+     */
+    public FrequencySketch(long expectedKeys) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("A sketch must track at least one key.");
+        }
+        int width = Integer.highestOneBit((int) Math.min(expectedKeys, MAX_WIDTH) * 2 - 1);
+        width = Math.max(width, 16);
+        // Sixteen 4-bit counters per long; width is a power of two of at least 16, so rows fill whole longs.
+        this.table = new long[width * DEPTH / 16];
+        this.mask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    /**
+     * Records one occurrence of a key.
+     *
+     * @param key The key.
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int shift = (index & 15) << 2;
+            if (((table[index >>> 4] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                table[index >>> 4] += 1L << shift;
+            }
+        }
+        if (++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * Estimates how often a key has been recorded recently.
+     *
+     * @param key The key.
+     * @return The estimated frequency, between 0 and 15.
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            frequency = Math.min(frequency, (int) (table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter so that old popularity decays and the sketch follows shifts in traffic.
+     */
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            // Shifting the whole word moves each counter's low bit into its neighbor's high bit; the mask drops it.
+            table[i] = (table[i] >>> 1) & HALF_MASK;
+        }
+        additions = 0;
+    }
+
+    /**
+     * Maps a hash to a counter in the given row.
+     *
+     * @param hash The spread hash of the key.
+     * @param row  The row of the sketch.
+     * @return The counter's index, counting sixteen per table entry.
+     */
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        h ^= h >>> 15;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    /**
+     * Mixes a hash code so that keys with poor hash codes still spread over the table.
+     *
+     * @param hashCode The key's hash code.
+     * @return The mixed hash.
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x45D9F3B;
+        return h ^ (h >>> 16);
+    }
+}
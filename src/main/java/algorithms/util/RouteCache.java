@@ -0,0 +1,411 @@
+package algorithms.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import data_structures.graph.EdgeWeightFunction;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of shortest-path results keyed by (start, end, penalizer identity, weight function
+ * identity). May be shared by several {@link algorithms.CachingShortestPathFinder}s, including ones with different
+ * penalizers or weight functions.
+ * <p>
+ * Eviction is least-recently-used, bounded either by number of routes or by total path length. New routes are only
+ * admitted once a {@link FrequencySketch} has seen their key a few times, so one-off scan traffic cannot flush
+ * popular routes out.
+ * <p>
+ * Prefixes of cached paths may also answer shorter queries from the same start, but only for penalizers registered
+ * with {@link #allowSubPathReuse(Penalizer)}. A penalizer is handed the end vertex of each search, and if it depends
+ * on it, a prefix of a shortest path to one end need not be a shortest path to another; so reuse is off by default.
+ *
+ * @param <V> The vertex type of the cached paths.
+ * @version 1.0
+ */
+public class RouteCache<V> {
+    private static final int DEFAULT_ADMISSION_THRESHOLD = 2;
+    // Used to guess how many routes fit in a cache bounded by total path length.
+    private static final int ASSUMED_PATH_WEIGHT = 32;
+
+    private final Cache<RouteKey<V>, Route<V>> cache;
+    private final FrequencySketch sketch;
+    private final Map<RouteKey<V>, RouteKey<V>> prefixIndex;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder subPathHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private volatile int admissionThreshold = DEFAULT_ADMISSION_THRESHOLD;
+    private volatile Set<Penalizer<?>> endIndependentPenalizers = Collections.emptySet();
+
+    /**
+     * Constructs a cache that holds at most the given number of routes.
+     *
+     * @param maximumRoutes The maximum number of cached routes.
+     */
+    public RouteCache(long maximumRoutes) {
+        this(maximumRoutes, false);
+    }
+
+    /**
+     * Constructs a cache bounded by number of routes or by total path length. When bounded by path length, the
+     * admission sketch is sized for one route per {@value #ASSUMED_PATH_WEIGHT} path vertices.
+     *
+     * @param bound             The maximum number of routes, or of path vertices if weighByPathLength is set.
+     * @param weighByPathLength Whether each route counts as its path length (plus one) rather than as one entry.
+     */
+    public RouteCache(long bound, boolean weighByPathLength) {
+        this(bound, weighByPathLength, weighByPathLength ? Math.max(1, bound / ASSUMED_PATH_WEIGHT) : bound);
+    }
+
+    /**
+     * Constructs a cache bounded by number of routes or by total path length, with an admission sketch sized for
+     * the given number of routes.
+     *
+     * @param bound             The maximum number of routes, or of path vertices if weighByPathLength is set.
+     * @param weighByPathLength Whether each route counts as its path length (plus one) rather than as one entry.
+     * @param expectedRoutes    The number of distinct routes the cache is expected to hold, which sizes the
+     *                          admission sketch.
+     */
+    public RouteCache(long bound, boolean weighByPathLength, long expectedRoutes) {
+        if (bound < 1) {
+            throw new IllegalArgumentException("A route cache must hold at least one route.");
+        }
+        if (expectedRoutes < 1) {
+            throw new IllegalArgumentException("A route cache must expect at least one route.");
+        }
+        RemovalListener<RouteKey<V>, Route<V>> unindex = notification -> unindex(notification.getKey(),
+                notification.getValue());
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (weighByPathLength) {
+            this.cache = builder.maximumWeight(bound)
+                    .<RouteKey<V>, Route<V>>weigher((key, route) -> route.path.size() + 1)
+                    .removalListener(unindex)
+                    .build();
+        } else {
+            this.cache = builder.maximumSize(bound).removalListener(unindex).build();
+        }
+        this.sketch = new FrequencySketch(expectedRoutes);
+        this.prefixIndex = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Looks up a route, recording the request for admission purposes. Falls back to a prefix of a longer cached route
+     * from the same start when sub-path reuse is allowed for the penalizer.
+     *
+     * @param start          The start of the route.
+     * @param end            The end of the route.
+     * @param penalizer      The penalizer the route was computed with.
+     * @param weightFunction The weight function the route was computed with; null for static edge weights.
+     * @return The cached route, or null on a miss.
+     */
+    public Route<V> get(V start, V end, Penalizer<V> penalizer, EdgeWeightFunction<?> weightFunction) {
+        RouteKey<V> key = new RouteKey<>(start, end, penalizer, weightFunction);
+        sketch.increment(key);
+        Route<V> route = cache.getIfPresent(key);
+        if (route != null) {
+            hits.increment();
+            return route;
+        }
+        if (endIndependentPenalizers.contains(penalizer)) {
+            RouteKey<V> containingKey = prefixIndex.get(key);
+            Route<V> containing = containingKey == null ? null : cache.getIfPresent(containingKey);
+            if (containing != null) {
+                Route<V> prefix = containing.prefixEndingAt(end);
+                if (prefix != null) {
+                    subPathHits.increment();
+                    return prefix;
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Offers a freshly computed route to the cache. It is only stored if its key has been requested often enough,
+     * and never if its search ran out of budget (a later search with a larger budget may succeed).
+     *
+     * @param start          The start of the route.
+     * @param end            The end of the route.
+     * @param penalizer      The penalizer the route was computed with.
+     * @param weightFunction The weight function the route was computed with; null for static edge weights.
+     * @param route          The route.
+     * @return Whether the route was admitted.
+     */
+    public boolean put(V start, V end, Penalizer<V> penalizer, EdgeWeightFunction<?> weightFunction,
+                       Route<V> route) {
+        if (route.outcome == SearchOutcome.BUDGET_EXHAUSTED) {
+            return false;
+        }
+        RouteKey<V> key = new RouteKey<>(start, end, penalizer, weightFunction);
+        if (sketch.frequency(key) < admissionThreshold) {
+            rejections.increment();
+            return false;
+        }
+        cache.put(key, route);
+        if (endIndependentPenalizers.contains(penalizer)) {
+            List<V> path = route.path;
+            for (int i = 0; i < path.size() - 1; i++) {
+                prefixIndex.put(new RouteKey<>(start, path.get(i), penalizer, weightFunction), key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops every cached route. Call after adding an edge or lowering a weight, or after any change to the graph
+     * that may affect many routes.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        prefixIndex.clear();
+    }
+
+    /**
+     * Drops every cached route that starts at, ends at, or passes through the given vertex. Call after removing an
+     * edge of that vertex or raising its weight: such a change never makes any path cheaper, so routes that avoid
+     * the vertex stay shortest, and "no path" results stay correct.
+     * <p>
+     * Not enough after adding an edge or lowering a weight, since that may open a shorter route through the vertex
+     * for any pair at all; call {@link #invalidateAll()} instead.
+     *
+     * @param vertex The vertex whose edge was removed or made more expensive.
+     */
+    public void invalidate(V vertex) {
+        cache.asMap().entrySet().removeIf(entry -> entry.getKey().start.equals(vertex)
+                || entry.getKey().end.equals(vertex)
+                || entry.getValue().path.contains(vertex));
+    }
+
+    /**
+     * Removes the prefix-index entries that point at an evicted or invalidated route.
+     *
+     * @param key   The removed route's key.
+     * @param route The removed route.
+     */
+    private void unindex(RouteKey<V> key, Route<V> route) {
+        if (key == null || route == null) {
+            return;
+        }
+        List<V> path = route.path;
+        for (int i = 0; i < path.size() - 1; i++) {
+            prefixIndex.remove(new RouteKey<>(key.start, path.get(i), key.penalizer, key.weightFunction), key);
+        }
+    }
+
+    /**
+     * Mutator of the admission threshold.
+     *
+     * @param admissionThreshold The number of times (1 to 15) a key must be requested before its route is cached.
+     */
+    public void setAdmissionThreshold(int admissionThreshold) {
+        if (admissionThreshold < 1 || admissionThreshold > 15) {
+            throw new IllegalArgumentException("Admission threshold must be between 1 and 15.");
+        }
+        this.admissionThreshold = admissionThreshold;
+    }
+
+    /**
+     * Lets prefixes of routes computed with a penalizer answer shorter queries from the same start. By calling this,
+     * the caller asserts that the penalizer ignores its second (end vertex) argument; otherwise, reused prefixes may
+     * not be shortest paths. Only routes cached after this call are indexed for reuse.
+     *
+     * @param endIndependentPenalizer A penalizer whose penalties do not depend on the end vertex.
+     */
+    public synchronized void allowSubPathReuse(Penalizer<V> endIndependentPenalizer) {
+        // Copy-on-write: registrations are rare, lookups are on every query.
+        Set<Penalizer<?>> penalizers = Collections.newSetFromMap(new IdentityHashMap<>());
+        penalizers.addAll(endIndependentPenalizers);
+        penalizers.add(endIndependentPenalizer);
+        endIndependentPenalizers = penalizers;
+    }
+
+    /**
+     * Stops reusing prefixes of routes computed with a penalizer.
+     *
+     * @param penalizer A penalizer previously passed to {@link #allowSubPathReuse(Penalizer)}.
+     */
+    public synchronized void disallowSubPathReuse(Penalizer<V> penalizer) {
+        Set<Penalizer<?>> penalizers = Collections.newSetFromMap(new IdentityHashMap<>());
+        penalizers.addAll(endIndependentPenalizers);
+        penalizers.remove(penalizer);
+        endIndependentPenalizers = penalizers;
+        prefixIndex.keySet().removeIf(key -> key.penalizer == penalizer);
+    }
+
+    /**
+     * Accessor of the number of lookups answered by an exact cached route.
+     *
+     * @return The exact-hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Accessor of the number of lookups answered by a prefix of a longer cached route.
+     *
+     * @return The sub-path-hit count.
+     */
+    public long getSubPathHitCount() {
+        return subPathHits.sum();
+    }
+
+    /**
+     * Accessor of the number of lookups that had to be computed.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Accessor of the number of computed routes the admission policy kept out of the cache.
+     *
+     * @return The rejection count.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Accessor of the number of routes evicted to respect the cache's bound.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Computes the fraction of lookups answered from the cache, exactly or by sub-path.
+     *
+     * @return The hit rate, or 1.0 if there have been no lookups.
+     */
+    public double hitRate() {
+        long served = hits.sum() + subPathHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 1.0 : (double) served / total;
+    }
+
+    /**
+     * Accessor of the number of routes currently cached.
+     *
+     * @return The approximate number of cached routes.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * An immutable cached shortest-path result.
+     *
+     * @param <V> The vertex type of the path.
+     */
+    public static final class Route<V> {
+        private final List<V> path;
+        private final String printed;
+        private final SearchOutcome outcome;
+
+        /**
+         * Constructs a route.
+         *
+         * @param path    The path, as returned by {@link ShortestPathFinder#getShortestPath()}.
+         * @param printed The path as printed by {@link ShortestPathFinder#printShortestPath()}; one line per edge.
+         * @param outcome How the search that produced the path ended.
+         */
+        public Route(List<V> path, String printed, SearchOutcome outcome) {
+            this.path = Collections.unmodifiableList(new ArrayList<>(path));
+            this.printed = printed;
+            this.outcome = outcome;
+        }
+
+        /**
+         * Accessor of the path.
+         *
+         * @return An unmodifiable view of the path.
+         */
+        public List<V> getPath() {
+            return path;
+        }
+
+        /**
+         * Accessor of the printed path.
+         *
+         * @return The printed path.
+         */
+        public String getPrinted() {
+            return printed;
+        }
+
+        /**
+         * Accessor of how the search that produced the path ended.
+         *
+         * @return The outcome.
+         */
+        public SearchOutcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Builds the prefix of this route that ends at the given vertex.
+         *
+         * @param end The last vertex of the prefix.
+         * @return The prefix, or null if end is not on this route.
+         */
+        private Route<V> prefixEndingAt(V end) {
+            int endIndex = path.indexOf(end);
+            if (endIndex < 0) {
+                return null;
+            }
+            String[] lines = printed.split("\n");
+            if (lines.length != path.size()) {
+                return null;
+            }
+            return new Route<>(path.subList(0, endIndex + 1),
+                    String.join("\n", Arrays.asList(lines).subList(0, endIndex + 1)), SearchOutcome.FOUND);
+        }
+    }
+
+    /**
+     * A cache key; penalizers and weight functions are compared by identity, vertices by equality.
+     *
+     * @param <V> The vertex type.
+     */
+    private static final class RouteKey<V> {
+        private final V start;
+        private final V end;
+        private final Penalizer<V> penalizer;
+        private final EdgeWeightFunction<?> weightFunction;
+
+        RouteKey(V start, V end, Penalizer<V> penalizer, EdgeWeightFunction<?> weightFunction) {
+            this.start = start;
+            this.end = end;
+            this.penalizer = penalizer;
+            this.weightFunction = weightFunction;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey<?> other = (RouteKey<?>) o;
+            return penalizer == other.penalizer && weightFunction == other.weightFunction
+                    && start.equals(other.start) && end.equals(other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hash(start, end) + System.identityHashCode(penalizer))
+                    + System.identityHashCode(weightFunction);
+        }
+    }
+}
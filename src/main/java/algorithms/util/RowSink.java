@@ -0,0 +1,19 @@
+package algorithms.util;
+
+/**
+ * A consumer of distance-matrix rows. Lets callers stream large matrices (e.g. to disk) instead of holding the full
+ * table in memory.
+ *
+ * @version 1.0
+ */
+public interface RowSink {
+
+    /**
+     * Accepts one computed row of a distance matrix. Rows are delivered in source order, from a single thread.
+     *
+     * @param sourceIndex The index of the row's source in the source list.
+     * @param row         The distances from the source to every target, in target order. Unreachable targets are
+     *                    {@link Double#POSITIVE_INFINITY}. The sink owns the array.
+     */
+    void acceptRow(int sourceIndex, double[] row);
+}
@@ -0,0 +1,121 @@
+package algorithms.util;
+
+import java.time.Duration;
+
+/**
+ * Limits on how much work a single shortest-path search may do before giving up. Immutable; each {@code with}
+ * method returns a copy with one limit changed.
+ *
+ * @version 1.0
+ */
+public final class SearchBudget {
+    private static final SearchBudget UNLIMITED = new SearchBudget(Double.POSITIVE_INFINITY, Long.MAX_VALUE,
+            Long.MAX_VALUE);
+
+    private final double maxDistance;
+    private final long maxSettledNodes;
+    private final long maxDurationNanos;
+
+    /**
+     * Constructs a budget.
+     *
+     * @param maxDistance      The largest path cost worth settling.
+     * @param maxSettledNodes  The largest number of vertices to settle.
+     * @param maxDurationNanos The longest wall-clock time to search for.
+     */
+    private SearchBudget(double maxDistance, long maxSettledNodes, long maxDurationNanos) {
+        this.maxDistance = maxDistance;
+        this.maxSettledNodes = maxSettledNodes;
+        this.maxDurationNanos = maxDurationNanos;
+    }
+
+    /**
+     * Accessor of the budget with no limits.
+     *
+     * @return The unlimited budget.
+     */
+    public static SearchBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Copies this budget with a maximum path cost; vertices farther than it are never settled.
+     *
+     * @param maxDistance The maximum path cost.
+     * @return The new budget.
+     */
+    public SearchBudget withMaxDistance(double maxDistance) {
+        if (Double.isNaN(maxDistance) || maxDistance < 0) {
+            throw new IllegalArgumentException("Maximum distance must be non-negative.");
+        }
+        return new SearchBudget(maxDistance, maxSettledNodes, maxDurationNanos);
+    }
+
+    /**
+     * Copies this budget with a maximum number of settled vertices.
+     *
+     * @param maxSettledNodes The maximum number of settled vertices.
+     * @return The new budget.
+     */
+    public SearchBudget withMaxSettledNodes(long maxSettledNodes) {
+        if (maxSettledNodes < 1) {
+            throw new IllegalArgumentException("A search must be allowed to settle at least one vertex.");
+        }
+        return new SearchBudget(maxDistance, maxSettledNodes, maxDurationNanos);
+    }
+
+    /**
+     * Copies this budget with a wall-clock deadline, measured from the start of each search.
+     *
+     * @param maxDuration The longest time a search may run.
+     * @return The new budget.
+     */
+    public SearchBudget withMaxDuration(Duration maxDuration) {
+        if (maxDuration.isNegative()) {
+            throw new IllegalArgumentException("Maximum duration must be non-negative.");
+        }
+        long nanos;
+        try {
+            nanos = maxDuration.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = Long.MAX_VALUE;
+        }
+        return new SearchBudget(maxDistance, maxSettledNodes, nanos);
+    }
+
+    /**
+     * Accessor of the maximum path cost.
+     *
+     * @return The maximum path cost; infinite if unlimited.
+     */
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Accessor of the maximum number of settled vertices.
+     *
+     * @return The maximum; {@link Long#MAX_VALUE} if unlimited.
+     */
+    public long getMaxSettledNodes() {
+        return maxSettledNodes;
+    }
+
+    /**
+     * Accessor of the wall-clock limit.
+     *
+     * @return The limit in nanoseconds; {@link Long#MAX_VALUE} if unlimited.
+     */
+    public long getMaxDurationNanos() {
+        return maxDurationNanos;
+    }
+
+    /**
+     * Whether this budget has a wall-clock limit.
+     *
+     * @return True if searches must check the clock.
+     */
+    public boolean hasDeadline() {
+        return maxDurationNanos != Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,24 @@
+package algorithms.util;
+
+/**
+ * How a shortest-path search ended.
+ *
+ * @version 1.0
+ */
+public enum SearchOutcome {
+    /**
+     * The end vertex was settled; the shortest path is known.
+     */
+    FOUND,
+
+    /**
+     * The search exhausted every reachable vertex without settling the end vertex.
+     */
+    UNREACHABLE,
+
+    /**
+     * The search hit its {@link SearchBudget} before settling the end vertex; there is no path within budget, though
+     * a longer one may exist.
+     */
+    BUDGET_EXHAUSTED
+}
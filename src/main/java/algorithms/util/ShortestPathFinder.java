@@ -32,4 +32,13 @@ public interface ShortestPathFinder<V, E> {
      * Returns shortest path as a list of vertices.
      */
     List<V> getShortestPath();
+
+    /**
+     * Reports how the most recent search ended. Finders without search budgets can only find a path or not.
+     *
+     * @return The outcome of the most recent search.
+     */
+    default SearchOutcome getOutcome() {
+        return getShortestPath().isEmpty() ? SearchOutcome.UNREACHABLE : SearchOutcome.FOUND;
+    }
 }
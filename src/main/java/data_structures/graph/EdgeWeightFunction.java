@@ -0,0 +1,30 @@
+package data_structures.graph;
+
+/**
+ * A weight for edges, evaluated by path-finders while they relax each edge. Lets one graph be searched under many
+ * weighting scenarios (e.g. rush hour, tolls) without copying it.
+ *
+ * @param <E> The type of edge being weighed.
+ * @version 1.0
+ */
+public interface EdgeWeightFunction<E> {
+
+    /**
+     * Computes the weight (e.g. travel time) of traversing an edge.
+     *
+     * @param edge          The edge.
+     * @param departureTime The time at which the edge is entered; ignored by time-independent weights.
+     * @return The edge's weight; must be non-negative.
+     */
+    double getWeight(E edge, double departureTime);
+
+    /**
+     * The weight function that uses each edge's own static {@link Edge#getWeight()}.
+     *
+     * @param <E> The type of edge being weighed.
+     * @return The static weight function.
+     */
+    static <E extends Edge<?>> EdgeWeightFunction<E> staticWeights() {
+        return (edge, departureTime) -> edge.getWeight();
+    }
+}
@@ -0,0 +1,243 @@
+package data_structures.graph;
+
+import java.util.*;
+
+/**
+ * Columnar storage of alternative edge weights for a fixed set of edges. Each edge gets a dense index once; each
+ * weighting scenario is then one named column -- a {@code double[]} of weights, plus optional shared
+ * {@link PiecewiseLinearProfile}s for time-dependent edges -- so adding a scenario costs one column, not a copy of
+ * the graph.
+ * <p>
+ * Lookups go through a {@code HashMap} from edge to index, so each weighing costs an {@code Edge.hashCode()}, an
+ * {@code equals()} and an {@code Integer} unboxing on top of the array read. Edges that cache their hash code keep
+ * this cheap; callers that already know an edge's {@link #indexOf index} can read columns without the map.
+ * <p>
+ * Reads may happen from many threads once the table is filled in; writes are not synchronized.
+ *
+ * @param <E> The type of edge being weighed.
+ * @version 1.0
+ */
+public class EdgeWeightTable<E extends Edge<?>> {
+    private final Map<E, Integer> edgeIndex;
+    private final Map<String, Column> columns;
+
+    /**
+     * Constructs an empty table over the given edges.
+     *
+     * @param edges Every edge that may be weighed; duplicates are ignored.
+     */
+    public EdgeWeightTable(Collection<E> edges) {
+        edgeIndex = new HashMap<>(edges.size() * 2);
+        for (E edge : edges) {
+            edgeIndex.putIfAbsent(edge, edgeIndex.size());
+        }
+        columns = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a scenario column initialized to every edge's static weight.
+     *
+     * @param name The scenario's name.
+     */
+    public void addColumn(String name) {
+        double[] weights = new double[edgeIndex.size()];
+        for (Map.Entry<E, Integer> entry : edgeIndex.entrySet()) {
+            weights[entry.getValue()] = entry.getKey().getWeight();
+        }
+        addColumn(name, weights);
+    }
+
+    /**
+     * Adds a scenario column with the given weights.
+     *
+     * @param name    The scenario's name.
+     * @param weights The non-negative weight of each edge, indexed by {@link #indexOf}; the table takes ownership
+     *                of the array.
+     */
+    public void addColumn(String name, double[] weights) {
+        if (columns.containsKey(name)) {
+            throw new IllegalArgumentException("ERROR: Column already exists: " + name);
+        }
+        if (weights.length != edgeIndex.size()) {
+            throw new IllegalArgumentException("ERROR: Expected one weight per edge.");
+        }
+        for (double weight : weights) {
+            checkWeight(weight);
+        }
+        columns.put(name, new Column(weights));
+    }
+
+    /**
+     * Removes a scenario column.
+     *
+     * @param name The scenario's name.
+     */
+    public void removeColumn(String name) {
+        columns.remove(name);
+    }
+
+    /**
+     * Sets an edge's static weight in a column.
+     *
+     * @param name   The scenario's name.
+     * @param edge   The edge.
+     * @param weight The non-negative weight.
+     */
+    public void setWeight(String name, E edge, double weight) {
+        checkWeight(weight);
+        getColumn(name).weights[requireIndex(edge)] = weight;
+    }
+
+    /**
+     * Makes an edge time-dependent in a column. The profile takes precedence over the edge's static weight there.
+     *
+     * @param name    The scenario's name.
+     * @param edge    The edge.
+     * @param profile The travel-time profile, or null to revert to the static weight.
+     */
+    public void setProfile(String name, E edge, PiecewiseLinearProfile profile) {
+        Column column = getColumn(name);
+        if (column.profiles == null) {
+            if (profile == null) {
+                return;
+            }
+            column.profiles = new PiecewiseLinearProfile[edgeIndex.size()];
+        }
+        column.profiles[requireIndex(edge)] = profile;
+    }
+
+    /**
+     * Looks up an edge's weight in a column.
+     *
+     * @param name          The scenario's name.
+     * @param edge          The edge.
+     * @param departureTime The time at which the edge is entered.
+     * @return The edge's weight; its static weight if it is not in the table.
+     */
+    public double getWeight(String name, E edge, double departureTime) {
+        return getColumn(name).weigh(edge, departureTime);
+    }
+
+    /**
+     * Looks up an edge's weight in a column by the edge's index, skipping the edge-to-index map.
+     *
+     * @param name          The scenario's name.
+     * @param edgeIndex     The edge's index, as returned by {@link #indexOf}.
+     * @param departureTime The time at which the edge is entered.
+     * @return The edge's weight.
+     */
+    public double getWeight(String name, int edgeIndex, double departureTime) {
+        int edgeCount = this.edgeIndex.size();
+        if (edgeIndex < 0 || edgeIndex >= edgeCount) {
+            throw new IndexOutOfBoundsException("Index " + edgeIndex + " out of bounds for size " + edgeCount);
+        }
+        return getColumn(name).weighAt(edgeIndex, departureTime);
+    }
+
+    /**
+     * Views a column as a weight function, e.g. for {@code AStar}.
+     *
+     * @param name The scenario's name.
+     * @return A weight function reading from the column.
+     */
+    public EdgeWeightFunction<E> weightFunction(String name) {
+        Column column = getColumn(name);
+        return column::weigh;
+    }
+
+    /**
+     * Accessor of an edge's dense index, i.e. its position in every column.
+     *
+     * @param edge The edge.
+     * @return The index, or -1 if the edge is not in the table.
+     */
+    public int indexOf(E edge) {
+        Integer index = edgeIndex.get(edge);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Accessor of the number of edges in the table.
+     *
+     * @return The number of edges.
+     */
+    public int getEdgeCount() {
+        return edgeIndex.size();
+    }
+
+    /**
+     * Accessor of the scenario names, in the order they were added.
+     *
+     * @return The column names.
+     */
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * Looks up a column by name.
+     *
+     * @param name The scenario's name.
+     * @return The column.
+     */
+    private Column getColumn(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("ERROR: No such column: " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Looks up an edge's index, failing if it is not in the table.
+     *
+     * @param edge The edge.
+     * @return The index.
+     */
+    private int requireIndex(E edge) {
+        Integer index = edgeIndex.get(edge);
+        if (index == null) {
+            throw new IllegalArgumentException("ERROR: Edge is not in this table.");
+        }
+        return index;
+    }
+
+    /**
+     * Validates a static weight.
+     *
+     * @param weight The weight.
+     */
+    private static void checkWeight(double weight) {
+        // Written so that NaN fails too.
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("ERROR: Edge weights must be non-negative numbers.");
+        }
+    }
+
+    /**
+     * One scenario: a static weight per edge, and a profile per time-dependent edge.
+     */
+    private final class Column {
+        private final double[] weights;
+        private PiecewiseLinearProfile[] profiles;
+
+        Column(double[] weights) {
+            this.weights = weights;
+        }
+
+        double weigh(E edge, double departureTime) {
+            Integer index = edgeIndex.get(edge);
+            if (index == null) {
+                return edge.getWeight();
+            }
+            return weighAt(index, departureTime);
+        }
+
+        double weighAt(int index, double departureTime) {
+            if (profiles != null && profiles[index] != null) {
+                return profiles[index].evaluate(departureTime);
+            }
+            return weights[index];
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package data_structures.graph;
+
+import java.util.Arrays;
+
+/**
+ * A periodic, piecewise-linear travel-time profile: the cost of traversing an edge as a function of the time it is
+ * entered (e.g. a 24-hour traffic curve). Between breakpoints the cost is linearly interpolated, and the last
+ * breakpoint wraps around to the first one a period later.
+ * <p>
+ * Profiles must be FIFO: entering later never means leaving earlier, i.e. {@code t + evaluate(t)} never decreases.
+ * For a piecewise-linear profile, this means every segment, including the one that wraps around, has a slope of at
+ * least -1. Shortest-path searches settle each vertex at its earliest arrival and weigh its edges at that time, which
+ * only yields optimal routes under FIFO, so the constructor rejects any other profile.
+ * <p>
+ * Immutable, so one profile can be shared by every edge of the same road class.
+ *
+ * @version 1.0
+ */
+public final class PiecewiseLinearProfile {
+    private final double[] times;
+    private final double[] values;
+    private final double period;
+
+    /**
+     * Constructs a profile.
+     *
+     * @param times  Strictly increasing breakpoint times in [0, period).
+     * @param values The non-negative, finite cost at each breakpoint; no segment may fall faster than time passes.
+     * @param period The length of one cycle (e.g. 86400 seconds).
+     */
+    public PiecewiseLinearProfile(double[] times, double[] values, double period) {
+        if (times.length == 0 || times.length != values.length) {
+            throw new IllegalArgumentException("A profile needs one value per breakpoint, and at least one.");
+        }
+        if (!(period > 0)) {
+            throw new IllegalArgumentException("A profile's period must be positive.");
+        }
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] < 0 || times[i] >= period || (i > 0 && times[i] <= times[i - 1])) {
+                throw new IllegalArgumentException("Breakpoints must be strictly increasing and within the period.");
+            }
+            if (!(values[i] >= 0) || Double.isInfinite(values[i])) {
+                throw new IllegalArgumentException("Breakpoint values must be non-negative and finite.");
+            }
+        }
+        for (int i = 0; i < times.length; i++) {
+            // Segment from breakpoint i to the next one, wrapping around from the last to the first.
+            int next = (i + 1) % times.length;
+            double duration = next == 0 ? times[0] + period - times[i] : times[next] - times[i];
+            if (values[next] - values[i] < -duration) {
+                throw new IllegalArgumentException("Profile is not FIFO: the cost falls faster than time passes "
+                        + "after breakpoint " + i + ".");
+            }
+        }
+        this.times = Arrays.copyOf(times, times.length);
+        this.values = Arrays.copyOf(values, values.length);
+        this.period = period;
+    }
+
+    /**
+     * Evaluates the profile.
+     *
+     * @param time The time the edge is entered; any real number, taken modulo the period.
+     * @return The interpolated cost.
+     */
+    public double evaluate(double time) {
+        int n = times.length;
+        if (n == 1) {
+            return values[0];
+        }
+        double t = time % period;
+        if (t < 0) {
+            t += period;
+        }
+        int index = Arrays.binarySearch(times, t);
+        if (index >= 0) {
+            return values[index];
+        }
+        int next = -index - 1;
+        int prev = next - 1;
+        double prevTime;
+        double nextTime;
+        if (next == n) {
+            // Past the last breakpoint; wrap around to the first one in the next period.
+            prevTime = times[n - 1];
+            nextTime = times[0] + period;
+            next = 0;
+        } else if (prev < 0) {
+            // Before the first breakpoint; wrap around from the last one in the previous period.
+            prev = n - 1;
+            prevTime = times[n - 1] - period;
+            nextTime = times[0];
+        } else {
+            prevTime = times[prev];
+            nextTime = times[next];
+        }
+        double fraction = (t - prevTime) / (nextTime - prevTime);
+        return values[prev] + fraction * (values[next] - values[prev]);
+    }
+
+    /**
+     * Accessor of the profile's period.
+     *
+     * @return The period.
+     */
+    public double getPeriod() {
+        return period;
+    }
+}
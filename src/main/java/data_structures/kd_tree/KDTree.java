@@ -1,5 +1,9 @@
 package data_structures.kd_tree;
 
+import instrumentation.SearchListener;
+import instrumentation.SearchStats;
+import instrumentation.SearchType;
+
 import java.util.*;
 
 /**
@@ -17,6 +21,7 @@ public class KDTree<T extends KDNode> {
     private T root;
     private HashMap<String, T> nameToCoordinateMap;
     private int size;
+    private SearchListener searchListener = SearchListener.NO_OP;
 
     /**
      * Constructs a null tree where each node will have (lastDimension + 1) dimensions.
@@ -30,6 +35,7 @@ public class KDTree<T extends KDNode> {
         this.lastDimension = lastDimension;
         nameToCoordinateMap = new HashMap<>();
         dimensionalComparator = new DimensionalComparator<T>(0);
+        euclideanComparator = new EuclideanComparator<T>(null);
     }
 
     /**
@@ -40,13 +46,15 @@ public class KDTree<T extends KDNode> {
      * @param nodes         A list of nodes.
      */
     public KDTree(List<T> nodes, int lastDimension) {
-        if (lastDimension < 1) {
+        if (lastDimension < 0) {
             throw new IllegalArgumentException("Nodes must have at least one dimension.");
         }
         this.lastDimension = lastDimension;
         nameToCoordinateMap = new HashMap<>();
-        root = this.build(nodes, 0);
+        // The comparators must exist before building, which sorts with them.
         dimensionalComparator = new DimensionalComparator<T>(0);
+        euclideanComparator = new EuclideanComparator<T>(null);
+        root = this.build(nodes, 0);
     }
 
     /**
@@ -84,15 +92,12 @@ public class KDTree<T extends KDNode> {
 
         List<T> leftSubList = nodes.subList(0, medianIndex);
         T leftChild = this.build(leftSubList, this.nextDimension(currDimension));
-        if (leftChild != null) {
-            node.setLeftChild(leftChild);
-        }
+        // Set even when null, so that a node reused from an older tree drops its stale children.
+        node.setLeftChild(leftChild);
 
         List<T> rightSubList = nodes.subList(medianIndex + 1, nodes.size());
         T rightChild = this.build(rightSubList, this.nextDimension(currDimension));
-        if (rightChild != null) {
-            node.setRightChild(rightChild);
-        }
+        node.setRightChild(rightChild);
         size++;
         return node;
     }
@@ -102,14 +107,18 @@ public class KDTree<T extends KDNode> {
      *
      * @param target The node to search around.
      * @param k      The max number of neighbors to return.
+     * @return Up to k nodes (other than ones at the target's exact coordinate), nearest first.
      */
     public List<KDNode> findKNearestNeighbors(T target, int k) {
         if (k < 1) {
             return Collections.emptyList();
         }
+        boolean reporting = searchListener.isEnabled();
+        long startNanos = reporting ? System.nanoTime() : 0L;
+        SearchStats stats = reporting ? new SearchStats() : SearchStats.DISABLED;
         EuclideanComparator<T> maxComparator = new EuclideanComparator<T>(target);
         PriorityQueue<T> priorityQueue = new PriorityQueue<>(k, maxComparator);
-        KNNTraverse(target, k, root, 0, priorityQueue);
+        knnTraverse(target, k, root, 0, priorityQueue, stats);
 
         /*
          * The priority queue is sorted descending but we want ascending.
@@ -120,6 +129,10 @@ public class KDTree<T extends KDNode> {
             KDNode curr = priorityQueue.poll();
             pQueueAsList.add(curr);
         }
+        Collections.reverse(pQueueAsList);
+        if (reporting) {
+            searchListener.onSearchComplete(SearchType.K_NEAREST_NEIGHBORS, stats, System.nanoTime() - startNanos);
+        }
         return pQueueAsList;
     }
 
@@ -146,68 +159,73 @@ public class KDTree<T extends KDNode> {
      */
     public void KNNTraverse(T target, int k, T currNode, int currDimension,
                             PriorityQueue<T> priorityQueue) {
+        knnTraverse(target, k, currNode, currDimension, priorityQueue, SearchStats.DISABLED);
+    }
+
+    /**
+     * Instrumented search routine for KNN; see {@link #KNNTraverse}.
+     *
+     * @param target        The node to search around.
+     * @param k             The max number of neighbors to return.
+     * @param currNode      The current node we're visiting in our traversal.
+     * @param currDimension The dimension that the current node was sorted on.
+     * @param priorityQueue A max-queue holding at most k neighbors of minimal distance to target.
+     * @param stats         The counters of the current query.
+     */
+    private void knnTraverse(T target, int k, T currNode, int currDimension,
+                             PriorityQueue<T> priorityQueue, SearchStats stats) {
         if (currNode == null) {
             return;
         }
+        stats.nodeVisited();
+        stats.distanceEvaluated();
         double distFromCurrNodeToTarget = euclideanComparator.getEuclideanDistance(currNode, target);
         if (distFromCurrNodeToTarget != 0) {
             if (priorityQueue.size() < k) {
                 priorityQueue.add(currNode);
-            } else if (euclideanComparator.getEuclideanDistance(priorityQueue.peek(), target)
-                    > distFromCurrNodeToTarget) {
-                // Remove head.
-                priorityQueue.poll();
-                priorityQueue.add(currNode);
+                stats.heapPush();
+            } else {
+                stats.distanceEvaluated();
+                if (euclideanComparator.getEuclideanDistance(priorityQueue.peek(), target)
+                        > distFromCurrNodeToTarget) {
+                    // Remove head.
+                    priorityQueue.poll();
+                    stats.heapPop();
+                    priorityQueue.add(currNode);
+                    stats.heapPush();
+                }
             }
         }
 
         int nextDimension = this.nextDimension(currDimension);
+        double axisDist = target.getCoordinate()[currDimension] - currNode.getCoordinate()[currDimension];
 
         /*
-         * If the queue isn't full, we need to search the entire space -- we can't prune yet.
+         * Search the side of the splitting plane that contains the target first; it is the most likely to hold
+         * close neighbors, which tightens the bound used to prune the other side.
          */
-        if (priorityQueue.size() < k) {
-            if (currNode.getLeftChild() != null) {
-                KNNTraverse(target, k, (T) currNode.getLeftChild(), nextDimension, priorityQueue);
-            }
-
-            if (currNode.getRightChild() != null) {
-                KNNTraverse(target, k, (T) currNode.getRightChild(), nextDimension, priorityQueue);
-            }
+        T nearChild = (T) (axisDist < 0 ? currNode.getLeftChild() : currNode.getRightChild());
+        T farChild = (T) (axisDist < 0 ? currNode.getRightChild() : currNode.getLeftChild());
+        if (nearChild != null) {
+            knnTraverse(target, k, nearChild, nextDimension, priorityQueue, stats);
+        }
+        if (farChild == null) {
+            return;
         }
-        /*
 
-         * The queue is full -- we can start pruning paths ("path" = subtree from current node).
+        /*
+         * If the queue isn't full, we need to search the entire space -- we can't prune yet. Otherwise, the far
+         * side can only hold a closer neighbor if the splitting plane is closer than the current k-th neighbor.
          */
-        else {
-            double axisDist = target.getCoordinate()[currDimension] - currNode.getCoordinate()[currDimension];
-            /*
-             * Ambiguous -- can't prune either path.
-             */
-            if (euclideanComparator.getEuclideanDistance(priorityQueue.peek(), target) > axisDist) {
-                if (currNode.getLeftChild() != null) {
-                    KNNTraverse(target, k, (T) currNode.getLeftChild(), nextDimension, priorityQueue);
-                }
-
-                if (currNode.getRightChild() != null) {
-                    KNNTraverse(target, k, (T) currNode.getRightChild(), nextDimension, priorityQueue);
-                }
-            }
-
-            /*
-             * Pruning the right path.
-             */
-            else if (currNode.getLeftChild() != null && axisDist >= 0) {
-                KNNTraverse(target, k, (T) currNode.getLeftChild(), nextDimension, priorityQueue);
-            }
-
-            /*
-             * Pruning the left path.
-             */
-            else if (currNode.getRightChild() != null && axisDist < 0) {
-                KNNTraverse(target, k, (T) currNode.getRightChild(), nextDimension, priorityQueue);
+        if (priorityQueue.size() < k) {
+            knnTraverse(target, k, farChild, nextDimension, priorityQueue, stats);
+        } else {
+            stats.distanceEvaluated();
+            if (euclideanComparator.getEuclideanDistance(priorityQueue.peek(), target) > Math.abs(axisDist)) {
+                knnTraverse(target, k, farChild, nextDimension, priorityQueue, stats);
+            } else {
+                stats.subtreePruned();
             }
-
         }
     }
 
@@ -218,15 +236,21 @@ public class KDTree<T extends KDNode> {
      * @param radius The radius of search.
      */
     public List<KDNode> radiusSearch(T target, double radius) {
+        boolean reporting = searchListener.isEnabled();
+        long startNanos = reporting ? System.nanoTime() : 0L;
+        SearchStats stats = reporting ? new SearchStats() : SearchStats.DISABLED;
         EuclideanComparator<T> maxComparator = new EuclideanComparator<T>(target);
-        PriorityQueue<T> priorityQueue = new PriorityQueue<>(size, maxComparator);
-        radiusTraverse(target, radius, root, 0, priorityQueue);
+        PriorityQueue<T> priorityQueue = new PriorityQueue<>(Math.max(1, size), maxComparator);
+        radiusTraverse(target, radius, root, 0, priorityQueue, stats);
 
         List<KDNode> pQueueAsList = new ArrayList<>();
         while (priorityQueue.size() > 0) {
             KDNode curr = priorityQueue.poll();
             pQueueAsList.add(curr);
         }
+        if (reporting) {
+            searchListener.onSearchComplete(SearchType.RADIUS, stats, System.nanoTime() - startNanos);
+        }
         return pQueueAsList;
     }
 
@@ -248,28 +272,40 @@ public class KDTree<T extends KDNode> {
      * @param currNode      The current node we're visiting in our traversal.
      * @param currDimension The dimension that the current node was sorted on.
      * @param priorityQueue A max-queue holding at most k neighbors of minimal distance to target.
+     * @param stats         The counters of the current query.
      */
     private void radiusTraverse(T target, double radius, T currNode,
-                                int currDimension, PriorityQueue<T> priorityQueue) {
+                                int currDimension, PriorityQueue<T> priorityQueue, SearchStats stats) {
         if (currNode == null) {
             return;
         }
+        stats.nodeVisited();
+        stats.distanceEvaluated();
 
+        // Each node is visited at most once, so no duplicate check is needed.
         double distFromCurrNodeToTarget = euclideanComparator.getEuclideanDistance(currNode, target);
-        boolean isWithinRadius = (distFromCurrNodeToTarget <= radius &&
-                !priorityQueue.contains(currNode));
-
-        if (isWithinRadius) {
+        if (distFromCurrNodeToTarget <= radius) {
             priorityQueue.add(currNode);
+            stats.heapPush();
         }
 
         int nextDimension = this.nextDimension(currDimension);
+        double axisDist = target.getCoordinate()[currDimension] - currNode.getCoordinate()[currDimension];
 
+        // A side of the splitting plane can only hold matches if the plane itself is within the radius.
         if (currNode.getLeftChild() != null) {
-            radiusTraverse(target, radius, (T) currNode.getLeftChild(), nextDimension, priorityQueue);
+            if (axisDist <= radius) {
+                radiusTraverse(target, radius, (T) currNode.getLeftChild(), nextDimension, priorityQueue, stats);
+            } else {
+                stats.subtreePruned();
+            }
         }
         if (currNode.getRightChild() != null) {
-            radiusTraverse(target, radius, (T) currNode.getRightChild(), nextDimension, priorityQueue);
+            if (-axisDist <= radius) {
+                radiusTraverse(target, radius, (T) currNode.getRightChild(), nextDimension, priorityQueue, stats);
+            } else {
+                stats.subtreePruned();
+            }
         }
     }
 
@@ -291,6 +327,24 @@ public class KDTree<T extends KDNode> {
         }
     }
 
+    /**
+     * Packs the tree into a read-only snapshot for bulk operations: the all-pairs KNN graph and the spatial join.
+     *
+     * @return The packed tree.
+     */
+    public PackedKDTree<T> pack() {
+        return new PackedKDTree<>(this);
+    }
+
+    /**
+     * Mutator of the listener notified with each search's counters and latency.
+     *
+     * @param searchListener The listener; {@link SearchListener#NO_OP} disables reporting.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
     /**
      * Accessor for size (number of nodes) of tree.
      *
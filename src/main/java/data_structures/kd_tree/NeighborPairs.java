@@ -0,0 +1,193 @@
+package data_structures.kd_tree;
+
+import data_structures.graph.Edge;
+import data_structures.graph.Vertex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact list of (source, target, distance) pairs, as produced by the operations of {@link PackedKDTree}. Sources
+ * and targets are node indices of the trees the pairs were computed over, held in primitive arrays rather than as
+ * objects.
+ *
+ * @version 1.0
+ */
+public final class NeighborPairs {
+    private int[] sources;
+    private int[] targets;
+    private double[] distances;
+    private int size;
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param capacity The number of pairs to allocate room for.
+     */
+    NeighborPairs(int capacity) {
+        sources = new int[Math.max(1, capacity)];
+        targets = new int[sources.length];
+        distances = new double[sources.length];
+    }
+
+    /**
+     * Appends a pair, growing the arrays as needed.
+     *
+     * @param source   The source node's index.
+     * @param target   The target node's index.
+     * @param distance The distance between them.
+     * @throws IllegalStateException If the list already holds as many pairs as one array can.
+     */
+    void add(int source, int target, double distance) {
+        if (size == sources.length) {
+            if (size == PackedKDTree.MAX_ARRAY_LENGTH) {
+                throw new IllegalStateException("ERROR: More than " + size + " pairs are too many for one list.");
+            }
+            int capacity = (int) Math.min(PackedKDTree.MAX_ARRAY_LENGTH, 2L * sources.length);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+        }
+        sources[size] = source;
+        targets[size] = target;
+        distances[size] = distance;
+        size++;
+    }
+
+    /**
+     * Concatenates lists, in order.
+     *
+     * @param parts The lists.
+     * @return One list holding every pair.
+     */
+    static NeighborPairs concat(List<NeighborPairs> parts) {
+        long total = 0;
+        for (NeighborPairs part : parts) {
+            total += part.size;
+        }
+        NeighborPairs pairs = new NeighborPairs(PackedKDTree.checkedLength(total, "pairs"));
+        for (NeighborPairs part : parts) {
+            System.arraycopy(part.sources, 0, pairs.sources, pairs.size, part.size);
+            System.arraycopy(part.targets, 0, pairs.targets, pairs.size, part.size);
+            System.arraycopy(part.distances, 0, pairs.distances, pairs.size, part.size);
+            pairs.size += part.size;
+        }
+        return pairs;
+    }
+
+    /**
+     * Accessor of the number of pairs.
+     *
+     * @return The number of pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Accessor of one pair's source.
+     *
+     * @param i The pair's index.
+     * @return The source node's index.
+     */
+    public int getSource(int i) {
+        checkIndex(i);
+        return sources[i];
+    }
+
+    /**
+     * Accessor of one pair's target.
+     *
+     * @param i The pair's index.
+     * @return The target node's index.
+     */
+    public int getTarget(int i) {
+        checkIndex(i);
+        return targets[i];
+    }
+
+    /**
+     * Accessor of one pair's distance.
+     *
+     * @param i The pair's index.
+     * @return The Euclidean distance between the source and target.
+     */
+    public double getDistance(int i) {
+        checkIndex(i);
+        return distances[i];
+    }
+
+    /**
+     * Accessor of every pair's source.
+     *
+     * @return A copy of the sources, in pair order.
+     */
+    public int[] getSources() {
+        return Arrays.copyOf(sources, size);
+    }
+
+    /**
+     * Accessor of every pair's target.
+     *
+     * @return A copy of the targets, in pair order.
+     */
+    public int[] getTargets() {
+        return Arrays.copyOf(targets, size);
+    }
+
+    /**
+     * Accessor of every pair's distance.
+     *
+     * @return A copy of the distances, in pair order.
+     */
+    public double[] getDistances() {
+        return Arrays.copyOf(distances, size);
+    }
+
+    /**
+     * Adds one edge per pair to a graph, from the source's vertex to the target's, weighted by their distance.
+     *
+     * @param sourceVertices The vertex of each source index.
+     * @param targetVertices The vertex of each target index; the same list for a pairing of a tree with itself.
+     * @param edgeFactory    Creates the edges.
+     * @param <V>            The type of vertex.
+     * @param <E>            The type of edge.
+     */
+    public <V extends Vertex<E>, E extends Edge<V>> void addEdges(List<V> sourceVertices, List<V> targetVertices,
+                                                                  EdgeFactory<V, E> edgeFactory) {
+        for (int i = 0; i < size; i++) {
+            V start = sourceVertices.get(sources[i]);
+            start.addEdge(edgeFactory.createEdge(start, targetVertices.get(targets[i]), distances[i]));
+        }
+    }
+
+    /**
+     * Validates a pair index.
+     *
+     * @param i The index.
+     */
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Creates the edge that represents one pair.
+     *
+     * @param <V> The type of vertex.
+     * @param <E> The type of edge.
+     */
+    @FunctionalInterface
+    public interface EdgeFactory<V, E> {
+        /**
+         * Creates an edge.
+         *
+         * @param start  The source's vertex.
+         * @param end    The target's vertex.
+         * @param weight The distance between them.
+         * @return The edge.
+         */
+        E createEdge(V start, V end, double weight);
+    }
+}
@@ -0,0 +1,551 @@
+package data_structures.kd_tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A read-only snapshot of a {@link KDTree}, packed into primitive arrays for bulk operations that traverse two trees
+ * at once: the all-pairs k-nearest-neighbor graph and the spatial join.
+ * <p>
+ * Nodes are numbered in pre-order, so every subtree is a contiguous range of indices. On top of the tree sits a
+ * hierarchy of clusters: each is a range of nodes with a bounding box, split in two along the tree's own structure
+ * (a node with its left subtree, and its right subtree) until it holds at most {@code LEAF_SIZE} nodes. Dual-tree
+ * operations walk pairs of clusters and skip every pair whose boxes are too far apart, so whole regions are pruned
+ * against whole regions instead of one query point at a time.
+ * <p>
+ * Operations split the query tree into independent clusters and process them in parallel.
+ *
+ * @version 1.0
+ */
+public class PackedKDTree<T extends KDNode> {
+    private static final int LEAF_SIZE = 16;
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+    // Some VMs reserve a few header words in an array, so the largest safe length is a little under 2^31.
+    static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final List<T> nodes;
+    private final int dimensions;
+    private final double[] coordinates;
+    private final int[] leftEnd;
+
+    private int clusterCount;
+    private final int[] clusterFrom;
+    private final int[] clusterTo;
+    private final int[] clusterLeft;
+    private final int[] clusterRight;
+    private final double[] clusterMin;
+    private final double[] clusterMax;
+
+    /**
+     * Packs a tree. Later changes to the tree are not reflected.
+     *
+     * @param tree The tree.
+     */
+    public PackedKDTree(KDTree<T> tree) {
+        int n = countNodes(tree.getRoot());
+        this.nodes = new ArrayList<>(n);
+        this.dimensions = n == 0 ? 0 : tree.getRoot().getCoordinate().length;
+        // Check every size before allocating anything, so an oversized tree fails fast rather than part-way through.
+        int coordinateCount = checkedLength((long) n * dimensions, "coordinates");
+        int maxClusters = checkedLength(Math.max(1, 2L * n - 1), "clusters");
+        int boxCount = checkedLength((long) maxClusters * dimensions, "cluster bounds");
+        this.coordinates = new double[coordinateCount];
+        this.leftEnd = new int[n];
+        if (n > 0) {
+            flatten(tree.getRoot());
+        }
+
+        this.clusterFrom = new int[maxClusters];
+        this.clusterTo = new int[maxClusters];
+        this.clusterLeft = new int[maxClusters];
+        this.clusterRight = new int[maxClusters];
+        this.clusterMin = new double[boxCount];
+        this.clusterMax = new double[boxCount];
+        if (n > 0) {
+            buildCluster(0, n);
+        }
+    }
+
+    /**
+     * Accessor for size (number of nodes) of the tree.
+     *
+     * @return The number of nodes.
+     */
+    public int getSize() {
+        return nodes.size();
+    }
+
+    /**
+     * Retrieves a node by its index, as used in {@link NeighborPairs}.
+     *
+     * @param index The node's pre-order index.
+     * @return The node.
+     */
+    public T getNode(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Accessor of every node.
+     *
+     * @return The nodes, in index order.
+     */
+    public List<T> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Finds the k nearest neighbors of every node at once, using a dual-tree traversal of this tree against itself.
+     * Each query cluster keeps a bound -- the largest k-th neighbor distance among its nodes -- and skips every
+     * reference cluster farther away than that.
+     * <p>
+     * A node is never its own neighbor, but unlike {@link KDTree#findKNearestNeighbors(KDNode, int)}, other nodes at
+     * the same coordinate are.
+     *
+     * @param k The max number of neighbors per node.
+     * @return One pair per (node, neighbor), grouped by source in index order and nearest first within a source.
+     */
+    public NeighborPairs findAllKNearestNeighbors(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("ERROR: k must be at least one.");
+        }
+        int n = nodes.size();
+        int width = Math.min(k, Math.max(0, n - 1));
+        if (width == 0) {
+            return new NeighborPairs(0);
+        }
+        NeighborHeaps heaps = new NeighborHeaps(n, width);
+        double[] bounds = new double[clusterCount];
+        Arrays.fill(bounds, Double.POSITIVE_INFINITY);
+
+        int[] pieces = splitForParallelism();
+        if (pieces.length == 1) {
+            knnTraverse(pieces[0], 0, heaps, bounds);
+        } else {
+            IntStream.range(0, pieces.length).parallel().forEach(i -> knnTraverse(pieces[i], 0, heaps, bounds));
+        }
+        return heaps.toPairs();
+    }
+
+    /**
+     * Finds every pair of nodes, one from this tree and one from another, within a radius of each other, using a
+     * dual-tree traversal that skips every pair of clusters whose boxes are farther apart than the radius.
+     *
+     * @param other  The other tree; may be this tree, in which case each node also pairs with itself.
+     * @param radius The radius of search.
+     * @return One pair per match: the source indexes this tree and the target indexes the other.
+     */
+    public NeighborPairs spatialJoin(PackedKDTree<?> other, double radius) {
+        if (nodes.isEmpty() || other.nodes.isEmpty()) {
+            return new NeighborPairs(0);
+        }
+        if (dimensions != other.dimensions) {
+            throw new IllegalArgumentException("ERROR: Mismatched number of dimensions.");
+        }
+        double radiusSquared = radius * radius;
+        int[] pieces = splitForParallelism();
+        NeighborPairs[] parts = new NeighborPairs[pieces.length];
+        IntStream range = IntStream.range(0, pieces.length);
+        (pieces.length == 1 ? range : range.parallel()).forEach(i -> {
+            parts[i] = new NeighborPairs(clusterTo[pieces[i]] - clusterFrom[pieces[i]]);
+            joinTraverse(pieces[i], other, 0, radiusSquared, parts[i]);
+        });
+        return NeighborPairs.concat(Arrays.asList(parts));
+    }
+
+    /**
+     * Dual-tree routine for all-KNN: offers the nodes of a reference cluster to the neighbor heaps of a query
+     * cluster's nodes.
+     *
+     * @param query     The query cluster.
+     * @param reference The reference cluster.
+     * @param heaps     The neighbor heaps of every node.
+     * @param bounds    Per query cluster, the largest squared k-th neighbor distance of its nodes.
+     */
+    private void knnTraverse(int query, int reference, NeighborHeaps heaps, double[] bounds) {
+        if (boxDistanceSquared(this, query, this, reference) > bounds[query]) {
+            return;
+        }
+        boolean queryIsLeaf = clusterLeft[query] < 0;
+        boolean referenceIsLeaf = clusterLeft[reference] < 0;
+        if (queryIsLeaf && referenceIsLeaf) {
+            double bound = 0.0;
+            for (int q = clusterFrom[query]; q < clusterTo[query]; q++) {
+                // The cluster's bound is loose for most of its nodes, so check each node against the box too.
+                if (pointBoxDistanceSquared(q, reference) <= heaps.worst(q)) {
+                    for (int r = clusterFrom[reference]; r < clusterTo[reference]; r++) {
+                        if (q != r) {
+                            heaps.offer(q, r, distanceSquared(this, q, this, r));
+                        }
+                    }
+                }
+                bound = Math.max(bound, heaps.worst(q));
+            }
+            bounds[query] = bound;
+            return;
+        }
+
+        if (!queryIsLeaf && (referenceIsLeaf || size(query) >= size(reference))) {
+            knnTraverse(clusterLeft[query], reference, heaps, bounds);
+            knnTraverse(clusterRight[query], reference, heaps, bounds);
+            bounds[query] = Math.max(bounds[clusterLeft[query]], bounds[clusterRight[query]]);
+        } else {
+            // Visit the nearer reference cluster first; it tightens the bound used to prune the farther one.
+            int near = clusterLeft[reference];
+            int far = clusterRight[reference];
+            if (boxDistanceSquared(this, query, this, far) < boxDistanceSquared(this, query, this, near)) {
+                near = clusterRight[reference];
+                far = clusterLeft[reference];
+            }
+            knnTraverse(query, near, heaps, bounds);
+            knnTraverse(query, far, heaps, bounds);
+        }
+    }
+
+    /**
+     * Dual-tree routine for the spatial join.
+     *
+     * @param query         The cluster of this tree.
+     * @param other         The other tree.
+     * @param reference     The cluster of the other tree.
+     * @param radiusSquared The squared radius of search.
+     * @param pairs         The list matches are appended to.
+     */
+    private void joinTraverse(int query, PackedKDTree<?> other, int reference, double radiusSquared,
+                              NeighborPairs pairs) {
+        if (boxDistanceSquared(this, query, other, reference) > radiusSquared) {
+            return;
+        }
+        boolean queryIsLeaf = clusterLeft[query] < 0;
+        boolean referenceIsLeaf = other.clusterLeft[reference] < 0;
+        if (queryIsLeaf && referenceIsLeaf) {
+            for (int q = clusterFrom[query]; q < clusterTo[query]; q++) {
+                for (int r = other.clusterFrom[reference]; r < other.clusterTo[reference]; r++) {
+                    double distanceSquared = distanceSquared(this, q, other, r);
+                    if (distanceSquared <= radiusSquared) {
+                        pairs.add(q, r, Math.sqrt(distanceSquared));
+                    }
+                }
+            }
+            return;
+        }
+
+        if (!queryIsLeaf && (referenceIsLeaf || size(query) >= other.size(reference))) {
+            joinTraverse(clusterLeft[query], other, reference, radiusSquared, pairs);
+            joinTraverse(clusterRight[query], other, reference, radiusSquared, pairs);
+        } else {
+            joinTraverse(query, other, other.clusterLeft[reference], radiusSquared, pairs);
+            joinTraverse(query, other, other.clusterRight[reference], radiusSquared, pairs);
+        }
+    }
+
+    /**
+     * Splits the root cluster level by level into enough independent query clusters to keep every core busy.
+     *
+     * @return The query clusters; just the root for small trees.
+     */
+    private int[] splitForParallelism() {
+        if (nodes.size() < PARALLEL_THRESHOLD) {
+            return new int[]{0};
+        }
+        int target = 4 * Runtime.getRuntime().availableProcessors();
+        List<Integer> pieces = Collections.singletonList(0);
+        boolean split = true;
+        while (pieces.size() < target && split) {
+            List<Integer> next = new ArrayList<>(pieces.size() * 2);
+            split = false;
+            for (int cluster : pieces) {
+                if (clusterLeft[cluster] < 0) {
+                    next.add(cluster);
+                } else {
+                    next.add(clusterLeft[cluster]);
+                    next.add(clusterRight[cluster]);
+                    split = true;
+                }
+            }
+            pieces = next;
+        }
+        return pieces.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Recursively builds the cluster over a range of nodes. The range is either a whole subtree, or a subtree's
+     * root with its left subtree only; either way, it splits along the tree into two ranges of the same kinds.
+     *
+     * @param from The first node (and root of the range's subtree), inclusive.
+     * @param to   The last node, exclusive.
+     * @return The cluster's index.
+     */
+    private int buildCluster(int from, int to) {
+        int cluster = clusterCount++;
+        clusterFrom[cluster] = from;
+        clusterTo[cluster] = to;
+        int boxOffset = cluster * dimensions;
+        if (to - from <= LEAF_SIZE) {
+            clusterLeft[cluster] = -1;
+            clusterRight[cluster] = -1;
+            Arrays.fill(clusterMin, boxOffset, boxOffset + dimensions, Double.POSITIVE_INFINITY);
+            Arrays.fill(clusterMax, boxOffset, boxOffset + dimensions, Double.NEGATIVE_INFINITY);
+            for (int node = from; node < to; node++) {
+                for (int d = 0; d < dimensions; d++) {
+                    double coordinate = coordinates[node * dimensions + d];
+                    clusterMin[boxOffset + d] = Math.min(clusterMin[boxOffset + d], coordinate);
+                    clusterMax[boxOffset + d] = Math.max(clusterMax[boxOffset + d], coordinate);
+                }
+            }
+            return cluster;
+        }
+
+        int left;
+        int right;
+        if (leftEnd[from] < to) {
+            left = buildCluster(from, leftEnd[from]);
+            right = buildCluster(leftEnd[from], to);
+        } else {
+            left = buildCluster(from, from + 1);
+            right = buildCluster(from + 1, to);
+        }
+        clusterLeft[cluster] = left;
+        clusterRight[cluster] = right;
+        for (int d = 0; d < dimensions; d++) {
+            clusterMin[boxOffset + d] = Math.min(clusterMin[left * dimensions + d], clusterMin[right * dimensions + d]);
+            clusterMax[boxOffset + d] = Math.max(clusterMax[left * dimensions + d], clusterMax[right * dimensions + d]);
+        }
+        return cluster;
+    }
+
+    /**
+     * Numbers a subtree's nodes in pre-order, copying their coordinates and recording where each right subtree
+     * starts.
+     *
+     * @param node The subtree's root.
+     */
+    @SuppressWarnings("unchecked")
+    private void flatten(KDNode node) {
+        int index = nodes.size();
+        double[] coordinate = node.getCoordinate();
+        if (coordinate.length != dimensions) {
+            throw new IllegalArgumentException("ERROR: Mismatched number of dimensions.");
+        }
+        nodes.add((T) node);
+        System.arraycopy(coordinate, 0, coordinates, index * dimensions, dimensions);
+        if (node.getLeftChild() != null) {
+            flatten(node.getLeftChild());
+        }
+        leftEnd[index] = nodes.size();
+        if (node.getRightChild() != null) {
+            flatten(node.getRightChild());
+        }
+    }
+
+    /**
+     * Counts a subtree's nodes.
+     *
+     * @param node The subtree's root.
+     * @return The number of nodes.
+     */
+    private static int countNodes(KDNode node) {
+        if (node == null) {
+            return 0;
+        }
+        return 1 + countNodes(node.getLeftChild()) + countNodes(node.getRightChild());
+    }
+
+    /**
+     * Accessor of the number of nodes in a cluster.
+     *
+     * @param cluster The cluster.
+     * @return The number of nodes.
+     */
+    private int size(int cluster) {
+        return clusterTo[cluster] - clusterFrom[cluster];
+    }
+
+    /**
+     * Computes the squared distance between the nearest points of two clusters' bounding boxes.
+     *
+     * @param a        The first cluster's tree.
+     * @param clusterA The first cluster.
+     * @param b        The second cluster's tree.
+     * @param clusterB The second cluster.
+     * @return The squared distance; 0 if the boxes overlap.
+     */
+    private static double boxDistanceSquared(PackedKDTree<?> a, int clusterA, PackedKDTree<?> b, int clusterB) {
+        int offsetA = clusterA * a.dimensions;
+        int offsetB = clusterB * b.dimensions;
+        double squared = 0.0;
+        for (int d = 0; d < a.dimensions; d++) {
+            double gap = Math.max(0.0, Math.max(a.clusterMin[offsetA + d] - b.clusterMax[offsetB + d],
+                    b.clusterMin[offsetB + d] - a.clusterMax[offsetA + d]));
+            squared += gap * gap;
+        }
+        return squared;
+    }
+
+    /**
+     * Computes the squared distance from a node to the nearest point of a cluster's bounding box.
+     *
+     * @param node    The node.
+     * @param cluster The cluster.
+     * @return The squared distance; 0 if the node is inside the box.
+     */
+    private double pointBoxDistanceSquared(int node, int cluster) {
+        int nodeOffset = node * dimensions;
+        int boxOffset = cluster * dimensions;
+        double squared = 0.0;
+        for (int d = 0; d < dimensions; d++) {
+            double coordinate = coordinates[nodeOffset + d];
+            double gap = Math.max(0.0, Math.max(clusterMin[boxOffset + d] - coordinate,
+                    coordinate - clusterMax[boxOffset + d]));
+            squared += gap * gap;
+        }
+        return squared;
+    }
+
+    /**
+     * Checks that an array of a given length can be allocated.
+     *
+     * @param length The length, computed in long arithmetic so that it cannot have overflowed.
+     * @param what   What the array holds, for the error message.
+     * @return The length.
+     * @throws IllegalArgumentException If the length exceeds the largest array the VM allows.
+     */
+    static int checkedLength(long length, String what) {
+        if (length > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("ERROR: " + length + " " + what + " are too many for one array (at most "
+                    + MAX_ARRAY_LENGTH + ").");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Computes the squared Euclidean distance between two nodes.
+     *
+     * @param a     The first node's tree.
+     * @param nodeA The first node.
+     * @param b     The second node's tree.
+     * @param nodeB The second node.
+     * @return The squared distance.
+     */
+    private static double distanceSquared(PackedKDTree<?> a, int nodeA, PackedKDTree<?> b, int nodeB) {
+        int offsetA = nodeA * a.dimensions;
+        int offsetB = nodeB * b.dimensions;
+        double squared = 0.0;
+        for (int d = 0; d < a.dimensions; d++) {
+            double difference = a.coordinates[offsetA + d] - b.coordinates[offsetB + d];
+            squared += difference * difference;
+        }
+        return squared;
+    }
+
+    /**
+     * One bounded max-heap of (squared distance, neighbor) per node, packed into shared arrays.
+     */
+    private static final class NeighborHeaps {
+        private final int width;
+        private final double[] distances;
+        private final int[] neighbors;
+        private final int[] sizes;
+
+        NeighborHeaps(int n, int width) {
+            int length = checkedLength((long) n * width, "neighbors (nodes times k)");
+            this.width = width;
+            this.distances = new double[length];
+            this.neighbors = new int[length];
+            this.sizes = new int[n];
+        }
+
+        /**
+         * Accessor of a node's k-th neighbor distance.
+         *
+         * @param node The node.
+         * @return The squared distance of its farthest kept neighbor, or infinity while it has fewer than k.
+         */
+        double worst(int node) {
+            return sizes[node] < width ? Double.POSITIVE_INFINITY : distances[node * width];
+        }
+
+        /**
+         * Offers a neighbor to a node's heap, keeping the k nearest.
+         *
+         * @param node            The node.
+         * @param neighbor        The candidate neighbor.
+         * @param distanceSquared The squared distance between them.
+         */
+        void offer(int node, int neighbor, double distanceSquared) {
+            int base = node * width;
+            int size = sizes[node];
+            if (size < width) {
+                int i = size;
+                while (i > 0 && distances[base + (i - 1) / 2] < distanceSquared) {
+                    int parent = (i - 1) / 2;
+                    distances[base + i] = distances[base + parent];
+                    neighbors[base + i] = neighbors[base + parent];
+                    i = parent;
+                }
+                distances[base + i] = distanceSquared;
+                neighbors[base + i] = neighbor;
+                sizes[node] = size + 1;
+            } else if (distanceSquared < distances[base]) {
+                siftDown(base, width, distanceSquared, neighbor);
+            }
+        }
+
+        /**
+         * Drains every heap into pairs, nearest first within each node.
+         *
+         * @return The pairs.
+         */
+        NeighborPairs toPairs() {
+            NeighborPairs pairs = new NeighborPairs(distances.length);
+            for (int node = 0; node < sizes.length; node++) {
+                int base = node * width;
+                int size = sizes[node];
+                // Heapsort in place: repeatedly move the farthest neighbor behind the shrinking heap.
+                for (int last = size - 1; last > 0; last--) {
+                    double distanceSquared = distances[base + last];
+                    int neighbor = neighbors[base + last];
+                    distances[base + last] = distances[base];
+                    neighbors[base + last] = neighbors[base];
+                    siftDown(base, last, distanceSquared, neighbor);
+                }
+                for (int i = 0; i < size; i++) {
+                    pairs.add(node, neighbors[base + i], Math.sqrt(distances[base + i]));
+                }
+            }
+            return pairs;
+        }
+
+        /**
+         * Places an entry at the root of a heap, then moves it down until the heap is ordered again.
+         *
+         * @param base            The heap's first slot.
+         * @param size            The number of slots in the heap.
+         * @param distanceSquared The entry's squared distance.
+         * @param neighbor        The entry's neighbor.
+         */
+        private void siftDown(int base, int size, double distanceSquared, int neighbor) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[base + child + 1] > distances[base + child]) {
+                    child++;
+                }
+                if (distances[base + child] <= distanceSquared) {
+                    break;
+                }
+                distances[base + i] = distances[base + child];
+                neighbors[base + i] = neighbors[base + child];
+                i = child;
+            }
+            distances[base + i] = distanceSquared;
+            neighbors[base + i] = neighbor;
+        }
+    }
+}
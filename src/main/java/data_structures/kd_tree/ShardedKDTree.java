@@ -0,0 +1,421 @@
+package data_structures.kd_tree;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A spatial index partitioned into shards, each its own {@link KDTree} with a bounding box.
+ * <p>
+ * Nodes are split into shards by recursively halving them at the median of their widest dimension, so every shard
+ * covers a compact region of space. Shards are built independently and in parallel. A query scatters only to the
+ * shards whose boxes could hold results and gathers their answers: KNN asks the nearest shard first, then only the
+ * shards closer than the current k-th neighbor, and merges everything through one bounded max-queue.
+ * <p>
+ * Shards are held in an {@link AtomicReferenceArray} and never modified once built, so one can be rebuilt and swapped
+ * in with {@link #replaceShard(int, List)} while queries keep reading the others (and the old copy of the replaced
+ * one). Queries are thread-safe.
+ * <p>
+ * Building a {@link KDTree} rewrites its nodes' child links, so each shard's tree is built over private wrappers of
+ * the caller's nodes rather than the nodes themselves. The caller's nodes are never modified; the same node may be
+ * passed to {@link #replaceShard(int, List)} again (e.g. when a shard is rebuilt with most of its old nodes) without
+ * disturbing queries still reading the shard it came from. The price is one small object per node and an extra
+ * indirection per coordinate read.
+ *
+ * @version 1.0
+ */
+public class ShardedKDTree<T extends KDNode> {
+
+    private final int lastDimension; // Zero-based; i.e. If five dimensions, then lastDimension is 4.
+    private final ExecutorService executor;
+    private final AtomicReferenceArray<Shard<T>> shards;
+    private final EuclideanComparator<KDNode> euclideanComparator;
+
+    /**
+     * Constructs an index over the given nodes, built and queried on the common fork-join pool.
+     *
+     * @param nodes         A list of nodes; not modified.
+     * @param lastDimension The last dimension in each node.
+     * @param shardCount    The number of shards to split the nodes into.
+     */
+    public ShardedKDTree(List<T> nodes, int lastDimension, int shardCount) {
+        this(nodes, lastDimension, shardCount, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an index over the given nodes.
+     *
+     * @param nodes         A list of nodes; not modified.
+     * @param lastDimension The last dimension in each node.
+     * @param shardCount    The number of shards to split the nodes into.
+     * @param executor      The executor that builds shards and runs per-shard queries; not shut down by the index.
+     */
+    public ShardedKDTree(List<T> nodes, int lastDimension, int shardCount, ExecutorService executor) {
+        if (lastDimension < 0) {
+            throw new IllegalArgumentException("Nodes must have at least one dimension.");
+        }
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("An index must have at least one shard.");
+        }
+        this.lastDimension = lastDimension;
+        this.executor = executor;
+        this.shards = new AtomicReferenceArray<>(shardCount);
+        this.euclideanComparator = new EuclideanComparator<>(null);
+
+        List<List<T>> partitions = new ArrayList<>(shardCount);
+        partition(new ArrayList<>(nodes), shardCount, partitions);
+        List<Future<Shard<T>>> builds = new ArrayList<>(shardCount);
+        for (List<T> partition : partitions) {
+            builds.add(executor.submit(() -> newShard(partition)));
+        }
+        for (int i = 0; i < shardCount; i++) {
+            shards.set(i, await(builds.get(i)));
+        }
+    }
+
+    /**
+     * K-Nearest-Neighbors (KNN) Search across every shard that could hold a neighbor.
+     *
+     * @param target The node to search around.
+     * @param k      The max number of neighbors to return.
+     * @return Up to k nodes (other than ones at the target's exact coordinate), nearest first.
+     */
+    public List<KDNode> findKNearestNeighbors(T target, int k) {
+        if (k < 1) {
+            return Collections.emptyList();
+        }
+        List<Shard<T>> candidates = shardsByBoxDistance(target.getCoordinate(), Double.POSITIVE_INFINITY);
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ShardNode<T> query = new ShardNode<>(target);
+        PriorityQueue<ShardNode<T>> priorityQueue = new PriorityQueue<>(k, new EuclideanComparator<>(query));
+
+        // The nearest shard usually holds most of the answer; querying it first gives a bound to prune the rest.
+        mergeNeighbors(query, k, candidates.get(0).tree.findKNearestNeighbors(query, k), priorityQueue);
+        double bound = priorityQueue.size() < k ? Double.POSITIVE_INFINITY
+                : euclideanComparator.getEuclideanDistance(priorityQueue.peek(), query);
+
+        List<Future<List<KDNode>>> scattered = new ArrayList<>();
+        for (int i = 1; i < candidates.size() && candidates.get(i).boxDistance(target.getCoordinate()) < bound; i++) {
+            KDTree<ShardNode<T>> tree = candidates.get(i).tree;
+            scattered.add(executor.submit(() -> tree.findKNearestNeighbors(query, k)));
+        }
+        for (Future<List<KDNode>> shardResult : scattered) {
+            mergeNeighbors(query, k, await(shardResult), priorityQueue);
+        }
+
+        LinkedList<KDNode> neighbors = new LinkedList<>();
+        while (priorityQueue.size() > 0) {
+            neighbors.addFirst(priorityQueue.poll().node);
+        }
+        return neighbors;
+    }
+
+    /**
+     * Searches every shard that overlaps a radius centered at a target coordinate.
+     *
+     * @param target The node to search around.
+     * @param radius The radius of search.
+     * @return The nodes within the radius, nearest first.
+     */
+    public List<KDNode> radiusSearch(T target, double radius) {
+        ShardNode<T> query = new ShardNode<>(target);
+        List<Future<List<KDNode>>> scattered = new ArrayList<>();
+        for (Shard<T> shard : shardsByBoxDistance(target.getCoordinate(), radius)) {
+            scattered.add(executor.submit(() -> shard.tree.radiusSearch(query, radius)));
+        }
+        List<KDNode> matches = new ArrayList<>();
+        for (Future<List<KDNode>> shardResult : scattered) {
+            for (KDNode match : await(shardResult)) {
+                matches.add(((ShardNode<?>) match).node);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(node -> distance(node.getCoordinate(), target.getCoordinate())));
+        return matches;
+    }
+
+    /**
+     * Rebuilds one shard from new nodes and swaps it in atomically. Queries already running keep using the old
+     * shard; later ones see the new one. Building happens on the calling thread, so no reader ever waits on it.
+     * <p>
+     * The nodes may include ones already in this or any other shard; the new tree links private wrappers, never the
+     * nodes themselves.
+     *
+     * @param shardIndex The shard to replace, between 0 and {@link #getShardCount()} - 1.
+     * @param nodes      The shard's new nodes; not modified.
+     */
+    public void replaceShard(int shardIndex, List<T> nodes) {
+        if (shardIndex < 0 || shardIndex >= shards.length()) {
+            throw new IllegalArgumentException("ERROR: No shard " + shardIndex + ".");
+        }
+        shards.set(shardIndex, newShard(new ArrayList<>(nodes)));
+    }
+
+    /**
+     * Accessor of one shard's nodes.
+     *
+     * @param shardIndex The shard, between 0 and {@link #getShardCount()} - 1.
+     * @return The current shard's nodes, in no particular order.
+     */
+    public List<T> getShardNodes(int shardIndex) {
+        return Collections.unmodifiableList(shards.get(shardIndex).nodes);
+    }
+
+    /**
+     * Accessor of the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length();
+    }
+
+    /**
+     * Accessor for size (number of nodes) of the index.
+     *
+     * @return The number of nodes across all shards.
+     */
+    public int getSize() {
+        int size = 0;
+        for (int i = 0; i < shards.length(); i++) {
+            size += shards.get(i).tree.getSize();
+        }
+        return size;
+    }
+
+    /**
+     * Recursively splits nodes into count groups of near-equal size, halving at the median of the widest dimension.
+     *
+     * @param nodes      The nodes to split; reordered.
+     * @param count      The number of groups to produce.
+     * @param partitions The list the groups are appended to.
+     */
+    private void partition(List<T> nodes, int count, List<List<T>> partitions) {
+        if (count == 1) {
+            partitions.add(nodes);
+            return;
+        }
+        int widestDimension = 0;
+        double widestSpread = -1;
+        for (int d = 0; d <= lastDimension; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (T node : nodes) {
+                min = Math.min(min, node.getCoordinate()[d]);
+                max = Math.max(max, node.getCoordinate()[d]);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widestDimension = d;
+            }
+        }
+        nodes.sort(new DimensionalComparator<T>(widestDimension));
+
+        int leftCount = count / 2;
+        int splitIndex = (int) ((long) nodes.size() * leftCount / count);
+        partition(new ArrayList<>(nodes.subList(0, splitIndex)), leftCount, partitions);
+        partition(new ArrayList<>(nodes.subList(splitIndex, nodes.size())), count - leftCount, partitions);
+    }
+
+    /**
+     * Builds a shard: its tree and the bounding box of its nodes.
+     *
+     * @param nodes The shard's nodes; kept by the shard, so not to be modified afterwards.
+     * @return The shard.
+     */
+    private Shard<T> newShard(List<T> nodes) {
+        List<ShardNode<T>> wrappers = new ArrayList<>(nodes.size());
+        double[] min = new double[lastDimension + 1];
+        double[] max = new double[lastDimension + 1];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (T node : nodes) {
+            double[] coordinate = node.getCoordinate();
+            if (coordinate.length != lastDimension + 1) {
+                throw new IllegalArgumentException("ERROR: Mismatched number of dimensions.");
+            }
+            for (int d = 0; d <= lastDimension; d++) {
+                min[d] = Math.min(min[d], coordinate[d]);
+                max[d] = Math.max(max[d], coordinate[d]);
+            }
+            wrappers.add(new ShardNode<>(node));
+        }
+        return new Shard<>(nodes, new KDTree<>(wrappers, lastDimension), min, max);
+    }
+
+    /**
+     * Takes a snapshot of the non-empty shards within a distance of a coordinate.
+     *
+     * @param coordinate  The coordinate.
+     * @param maxDistance The largest box distance to include.
+     * @return The shards, nearest box first.
+     */
+    private List<Shard<T>> shardsByBoxDistance(double[] coordinate, double maxDistance) {
+        List<Shard<T>> candidates = new ArrayList<>(shards.length());
+        for (int i = 0; i < shards.length(); i++) {
+            Shard<T> shard = shards.get(i);
+            if (shard.tree.getSize() > 0 && shard.boxDistance(coordinate) <= maxDistance) {
+                candidates.add(shard);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(shard -> shard.boxDistance(coordinate)));
+        return candidates;
+    }
+
+    /**
+     * Offers one shard's neighbors to the global max-queue, keeping at most k.
+     *
+     * @param target        The node searched around.
+     * @param k             The max number of neighbors to keep.
+     * @param neighbors     The shard's neighbors, all wrappers from one shard's tree.
+     * @param priorityQueue A max-queue holding at most k neighbors of minimal distance to target.
+     */
+    @SuppressWarnings("unchecked")
+    private void mergeNeighbors(ShardNode<T> target, int k, List<KDNode> neighbors,
+                                PriorityQueue<ShardNode<T>> priorityQueue) {
+        for (KDNode neighbor : neighbors) {
+            if (priorityQueue.size() < k) {
+                priorityQueue.add((ShardNode<T>) neighbor);
+            } else if (euclideanComparator.getEuclideanDistance(priorityQueue.peek(), target)
+                    > euclideanComparator.getEuclideanDistance(neighbor, target)) {
+                priorityQueue.poll();
+                priorityQueue.add((ShardNode<T>) neighbor);
+            } else {
+                // Each shard's neighbors are nearest first, so none of the rest can get in either.
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for a per-shard task.
+     *
+     * @param future The task.
+     * @param <R>    The type of the task's result.
+     * @return The task's result.
+     */
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to query a shard.", e.getCause());
+        }
+    }
+
+    /**
+     * Computes the Euclidean distance between two coordinates.
+     *
+     * @param c1 The first coordinate.
+     * @param c2 The second coordinate.
+     * @return The distance between them.
+     */
+    private static double distance(double[] c1, double[] c2) {
+        double squared = 0.0;
+        for (int i = 0; i < c1.length; i++) {
+            squared += (c1[i] - c2[i]) * (c1[i] - c2[i]);
+        }
+        return Math.sqrt(squared);
+    }
+
+    /**
+     * One immutable shard: its nodes, a tree over wrappers of them, and their bounding box.
+     *
+     * @param <T> The type of node.
+     */
+    private static final class Shard<T extends KDNode> {
+        private final List<T> nodes;
+        private final KDTree<ShardNode<T>> tree;
+        private final double[] min;
+        private final double[] max;
+
+        Shard(List<T> nodes, KDTree<ShardNode<T>> tree, double[] min, double[] max) {
+            this.nodes = nodes;
+            this.tree = tree;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Computes the distance from a coordinate to the nearest point of the bounding box.
+         *
+         * @param coordinate The coordinate.
+         * @return The distance; 0 if the coordinate is inside the box.
+         */
+        double boxDistance(double[] coordinate) {
+            double squared = 0.0;
+            for (int d = 0; d < min.length; d++) {
+                double gap = Math.max(0.0, Math.max(min[d] - coordinate[d], coordinate[d] - max[d]));
+                squared += gap * gap;
+            }
+            return Math.sqrt(squared);
+        }
+    }
+
+    /**
+     * A shard tree's private stand-in for a caller's node: it owns the child links, and reads everything else
+     * through to the node, so building a shard never touches the caller's nodes.
+     *
+     * @param <T> The type of node.
+     */
+    private static final class ShardNode<T extends KDNode> implements KDNode {
+        private final T node;
+        private KDNode leftChild;
+        private KDNode rightChild;
+
+        ShardNode(T node) {
+            this.node = node;
+        }
+
+        @Override
+        public KDNode getLeftChild() {
+            return leftChild;
+        }
+
+        @Override
+        public void setLeftChild(KDNode leftChild) {
+            this.leftChild = leftChild;
+        }
+
+        @Override
+        public KDNode getRightChild() {
+            return rightChild;
+        }
+
+        @Override
+        public void setRightChild(KDNode rightChild) {
+            this.rightChild = rightChild;
+        }
+
+        @Override
+        public double[] getCoordinate() {
+            return node.getCoordinate();
+        }
+
+        @Override
+        public void setCoordinate(double[] coordinate) {
+            throw new UnsupportedOperationException("ERROR: Shard nodes are read-only.");
+        }
+
+        @Override
+        public String getData() {
+            return node.getData();
+        }
+
+        @Override
+        public void setData(String data) {
+            throw new UnsupportedOperationException("ERROR: Shard nodes are read-only.");
+        }
+
+        @Override
+        public void printContents() {
+            node.printContents();
+        }
+    }
+}
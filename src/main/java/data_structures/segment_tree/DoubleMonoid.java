@@ -0,0 +1,120 @@
+package data_structures.segment_tree;
+
+/**
+ * An associative aggregate over doubles (e.g. sum, min, max), plus how range updates change an aggregate. Used to
+ * plug the aggregate into a {@link DoubleSegmentTree}.
+ *
+ * @version 1.0
+ */
+public interface DoubleMonoid {
+
+    /**
+     * Range sums.
+     */
+    DoubleMonoid SUM = new DoubleMonoid() {
+        @Override
+        public double identity() {
+            return 0.0;
+        }
+
+        @Override
+        public double combine(double a, double b) {
+            return a + b;
+        }
+
+        @Override
+        public double add(double aggregate, double delta, int length) {
+            return aggregate + delta * length;
+        }
+
+        @Override
+        public double assign(double value, int length) {
+            return value * length;
+        }
+    };
+
+    /**
+     * Range minimums.
+     */
+    DoubleMonoid MIN = new DoubleMonoid() {
+        @Override
+        public double identity() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double combine(double a, double b) {
+            return Math.min(a, b);
+        }
+
+        @Override
+        public double add(double aggregate, double delta, int length) {
+            return aggregate + delta;
+        }
+
+        @Override
+        public double assign(double value, int length) {
+            return value;
+        }
+    };
+
+    /**
+     * Range maximums.
+     */
+    DoubleMonoid MAX = new DoubleMonoid() {
+        @Override
+        public double identity() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double combine(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        @Override
+        public double add(double aggregate, double delta, int length) {
+            return aggregate + delta;
+        }
+
+        @Override
+        public double assign(double value, int length) {
+            return value;
+        }
+    };
+
+    /**
+     * The aggregate of an empty range; combining with it changes nothing.
+     *
+     * @return The identity element.
+     */
+    double identity();
+
+    /**
+     * Aggregates two adjacent ranges.
+     *
+     * @param a The aggregate of the left range.
+     * @param b The aggregate of the right range.
+     * @return The aggregate of both ranges.
+     */
+    double combine(double a, double b);
+
+    /**
+     * Computes a range's aggregate after delta is added to every element.
+     *
+     * @param aggregate The range's aggregate.
+     * @param delta     The amount added to every element.
+     * @param length    The number of elements in the range.
+     * @return The new aggregate.
+     */
+    double add(double aggregate, double delta, int length);
+
+    /**
+     * Computes a range's aggregate after every element is set to value.
+     *
+     * @param value  The value of every element.
+     * @param length The number of elements in the range.
+     * @return The new aggregate.
+     */
+    double assign(double value, int length);
+}
@@ -0,0 +1,401 @@
+package data_structures.segment_tree;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A Segment Tree over doubles with lazy range updates (see: https://en.wikipedia.org/wiki/Segment_tree).
+ * <p>
+ * The tree is implicit: node k's children are 2k and 2k + 1, the leaves start at index {@code capacity}, and every
+ * operation walks the tree bottom-up without recursion. The aggregate is pluggable through a {@link DoubleMonoid}.
+ * Pending range updates are stored per internal node as an optional assignment followed by an addition, and are
+ * pushed down only along the paths an operation touches. All ranges are half-open: [from, to).
+ * <p>
+ * Not thread-safe.
+ *
+ * @version 1.0
+ */
+public class DoubleSegmentTree {
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 16;
+    private static final int BUILD_CHUNK = 1 << 12;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private final DoubleMonoid monoid;
+    private final int n;
+    private final int capacity;
+    private final int log;
+    private final double[] tree;
+    private final double[] pendingAdd;
+    private final double[] pendingAssign;
+    private final boolean[] hasPendingAssign;
+
+    /**
+     * Builds a tree over the given values. Large trees are built level by level in parallel.
+     *
+     * @param values The initial values; copied.
+     * @param monoid The aggregate to maintain.
+     */
+    public DoubleSegmentTree(double[] values, DoubleMonoid monoid) {
+        if (values.length > MAX_CAPACITY) {
+            throw new IllegalArgumentException("ERROR: Too many values for one segment tree.");
+        }
+        this.monoid = monoid;
+        this.n = values.length;
+        this.log = n <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+        this.capacity = 1 << log;
+        this.tree = new double[2 * capacity];
+        this.pendingAdd = new double[capacity];
+        this.pendingAssign = new double[capacity];
+        this.hasPendingAssign = new boolean[capacity];
+
+        System.arraycopy(values, 0, tree, capacity, n);
+        Arrays.fill(tree, capacity + n, 2 * capacity, monoid.identity());
+        for (int levelStart = capacity >> 1; levelStart >= 1; levelStart >>= 1) {
+            buildLevel(levelStart);
+        }
+    }
+
+    /**
+     * Builds a tree of the given size with every element equal to value.
+     *
+     * @param size   The number of elements.
+     * @param value  The initial value of every element.
+     * @param monoid The aggregate to maintain.
+     */
+    public DoubleSegmentTree(int size, double value, DoubleMonoid monoid) {
+        this(filled(size, value), monoid);
+    }
+
+    /**
+     * Accessor of the number of elements.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Retrieves one element.
+     *
+     * @param index The element's index.
+     * @return The element's value.
+     */
+    public double get(int index) {
+        checkIndex(index);
+        int leaf = index + capacity;
+        pushPath(leaf);
+        return tree[leaf];
+    }
+
+    /**
+     * Sets one element.
+     *
+     * @param index The element's index.
+     * @param value The new value.
+     */
+    public void set(int index, double value) {
+        checkIndex(index);
+        int leaf = index + capacity;
+        pushPath(leaf);
+        tree[leaf] = value;
+        for (int i = 1; i <= log; i++) {
+            update(leaf >> i);
+        }
+    }
+
+    /**
+     * Aggregates a range.
+     *
+     * @param from The first index, inclusive.
+     * @param to   The last index, exclusive.
+     * @return The range's aggregate, or the monoid's identity if the range is empty.
+     */
+    public double query(int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return monoid.identity();
+        }
+        int l = from + capacity;
+        int r = to + capacity;
+        pushBoundaries(l, r);
+
+        double leftAggregate = monoid.identity();
+        double rightAggregate = monoid.identity();
+        while (l < r) {
+            if ((l & 1) == 1) {
+                leftAggregate = monoid.combine(leftAggregate, tree[l++]);
+            }
+            if ((r & 1) == 1) {
+                rightAggregate = monoid.combine(tree[--r], rightAggregate);
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return monoid.combine(leftAggregate, rightAggregate);
+    }
+
+    /**
+     * Aggregates every element.
+     *
+     * @return The aggregate of the whole tree.
+     */
+    public double queryAll() {
+        return n == 0 ? monoid.identity() : tree[1];
+    }
+
+    /**
+     * Adds delta to every element of a range.
+     *
+     * @param from  The first index, inclusive.
+     * @param to    The last index, exclusive.
+     * @param delta The amount to add.
+     */
+    public void rangeAdd(int from, int to, double delta) {
+        rangeUpdate(from, to, false, delta);
+    }
+
+    /**
+     * Sets every element of a range to value.
+     *
+     * @param from  The first index, inclusive.
+     * @param to    The last index, exclusive.
+     * @param value The new value.
+     */
+    public void rangeAssign(int from, int to, double value) {
+        rangeUpdate(from, to, true, value);
+    }
+
+    /**
+     * Sets many elements in one pass: each shared ancestor is recomputed once, rather than once per element.
+     *
+     * @param indices The elements' indices; a later duplicate wins.
+     * @param values  The new values.
+     */
+    public void setAll(int[] indices, double[] values) {
+        batchUpdate(indices, values, false);
+    }
+
+    /**
+     * Adds to many elements in one pass: each shared ancestor is recomputed once, rather than once per element.
+     *
+     * @param indices The elements' indices; duplicates add up.
+     * @param deltas  The amounts to add.
+     */
+    public void addAll(int[] indices, double[] deltas) {
+        batchUpdate(indices, deltas, true);
+    }
+
+    /**
+     * Applies an addition or assignment to a range.
+     *
+     * @param from     The first index, inclusive.
+     * @param to       The last index, exclusive.
+     * @param isAssign Whether to assign (rather than add) the operand.
+     * @param operand  The value to assign or amount to add.
+     */
+    private void rangeUpdate(int from, int to, boolean isAssign, double operand) {
+        checkRange(from, to);
+        if (from == to) {
+            return;
+        }
+        int l = from + capacity;
+        int r = to + capacity;
+        pushBoundaries(l, r);
+
+        int l2 = l;
+        int r2 = r;
+        while (l2 < r2) {
+            if ((l2 & 1) == 1) {
+                apply(l2++, isAssign, operand);
+            }
+            if ((r2 & 1) == 1) {
+                apply(--r2, isAssign, operand);
+            }
+            l2 >>= 1;
+            r2 >>= 1;
+        }
+
+        for (int i = 1; i <= log; i++) {
+            if (((l >> i) << i) != l) {
+                update(l >> i);
+            }
+            if (((r >> i) << i) != r) {
+                update((r - 1) >> i);
+            }
+        }
+    }
+
+    /**
+     * Applies point updates, then recomputes the distinct ancestors of the touched leaves level by level.
+     *
+     * @param indices  The elements' indices.
+     * @param operands The values to set or amounts to add.
+     * @param isAdd    Whether to add (rather than set) the operands.
+     */
+    private void batchUpdate(int[] indices, double[] operands, boolean isAdd) {
+        if (indices.length != operands.length) {
+            throw new IllegalArgumentException("ERROR: Expected one operand per index.");
+        }
+        int[] nodes = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            checkIndex(indices[i]);
+            int leaf = indices[i] + capacity;
+            pushPath(leaf);
+            tree[leaf] = isAdd ? tree[leaf] + operands[i] : operands[i];
+            nodes[i] = leaf;
+        }
+        Arrays.sort(nodes);
+        int count = nodes.length;
+        for (int i = 1; i <= log; i++) {
+            // Parents of sorted nodes are sorted, so duplicates are adjacent.
+            int distinct = 0;
+            for (int j = 0; j < count; j++) {
+                int parent = nodes[j] >> 1;
+                if (distinct == 0 || nodes[distinct - 1] != parent) {
+                    nodes[distinct++] = parent;
+                }
+            }
+            count = distinct;
+            for (int j = 0; j < count; j++) {
+                update(nodes[j]);
+            }
+        }
+    }
+
+    /**
+     * Computes every node of one level from the level below it. Large levels are split into chunks that are built
+     * in parallel, since no node of a level depends on another.
+     *
+     * @param levelStart The first node of the level; also the level's width.
+     */
+    private void buildLevel(int levelStart) {
+        if (levelStart < PARALLEL_BUILD_THRESHOLD) {
+            for (int node = levelStart; node < levelStart << 1; node++) {
+                update(node);
+            }
+            return;
+        }
+        IntStream.range(0, levelStart / BUILD_CHUNK).parallel().forEach(chunk -> {
+            int chunkStart = levelStart + chunk * BUILD_CHUNK;
+            for (int node = chunkStart; node < chunkStart + BUILD_CHUNK; node++) {
+                update(node);
+            }
+        });
+    }
+
+    /**
+     * Pushes pending updates down to the nodes an operation on leaves [l, r) will touch.
+     *
+     * @param l The first leaf, inclusive.
+     * @param r The last leaf, exclusive.
+     */
+    private void pushBoundaries(int l, int r) {
+        for (int i = log; i >= 1; i--) {
+            if (((l >> i) << i) != l) {
+                push(l >> i);
+            }
+            if (((r >> i) << i) != r) {
+                push((r - 1) >> i);
+            }
+        }
+    }
+
+    /**
+     * Pushes pending updates down every ancestor of a leaf, from the root.
+     *
+     * @param leaf The leaf.
+     */
+    private void pushPath(int leaf) {
+        for (int i = log; i >= 1; i--) {
+            push(leaf >> i);
+        }
+    }
+
+    /**
+     * Recomputes a node's aggregate from its children.
+     *
+     * @param node The internal node.
+     */
+    private void update(int node) {
+        tree[node] = monoid.combine(tree[2 * node], tree[2 * node + 1]);
+    }
+
+    /**
+     * Applies an update to a whole node, deferring it for the node's descendants.
+     *
+     * @param node     The node.
+     * @param isAssign Whether to assign (rather than add) the operand.
+     * @param operand  The value to assign or amount to add.
+     */
+    private void apply(int node, boolean isAssign, double operand) {
+        int length = capacity >> (31 - Integer.numberOfLeadingZeros(node));
+        if (isAssign) {
+            tree[node] = monoid.assign(operand, length);
+            if (node < capacity) {
+                hasPendingAssign[node] = true;
+                pendingAssign[node] = operand;
+                pendingAdd[node] = 0.0;
+            }
+        } else {
+            tree[node] = monoid.add(tree[node], operand, length);
+            if (node < capacity) {
+                pendingAdd[node] += operand;
+            }
+        }
+    }
+
+    /**
+     * Moves a node's pending update to its children.
+     *
+     * @param node The internal node.
+     */
+    private void push(int node) {
+        if (hasPendingAssign[node]) {
+            apply(2 * node, true, pendingAssign[node]);
+            apply(2 * node + 1, true, pendingAssign[node]);
+            hasPendingAssign[node] = false;
+        }
+        if (pendingAdd[node] != 0.0) {
+            apply(2 * node, false, pendingAdd[node]);
+            apply(2 * node + 1, false, pendingAdd[node]);
+            pendingAdd[node] = 0.0;
+        }
+    }
+
+    /**
+     * Validates an element index.
+     *
+     * @param index The index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+        }
+    }
+
+    /**
+     * Validates a half-open range.
+     *
+     * @param from The first index, inclusive.
+     * @param to   The last index, exclusive.
+     */
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > n || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + n);
+        }
+    }
+
+    /**
+     * Creates an array with every element equal to value.
+     *
+     * @param size  The array's length.
+     * @param value The value.
+     * @return The array.
+     */
+    private static double[] filled(int size, double value) {
+        double[] values = new double[size];
+        Arrays.fill(values, value);
+        return values;
+    }
+}
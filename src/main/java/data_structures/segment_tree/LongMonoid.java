@@ -0,0 +1,120 @@
+package data_structures.segment_tree;
+
+/**
+ * An associative aggregate over longs (e.g. sum, min, max), plus how range updates change an aggregate. Used to
+ * plug the aggregate into a {@link LongSegmentTree}.
+ *
+ * @version 1.0
+ */
+public interface LongMonoid {
+
+    /**
+     * Range sums. Beware of overflow on large ranges.
+     */
+    LongMonoid SUM = new LongMonoid() {
+        @Override
+        public long identity() {
+            return 0L;
+        }
+
+        @Override
+        public long combine(long a, long b) {
+            return a + b;
+        }
+
+        @Override
+        public long add(long aggregate, long delta, int length) {
+            return aggregate + delta * length;
+        }
+
+        @Override
+        public long assign(long value, int length) {
+            return value * length;
+        }
+    };
+
+    /**
+     * Range minimums.
+     */
+    LongMonoid MIN = new LongMonoid() {
+        @Override
+        public long identity() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long combine(long a, long b) {
+            return Math.min(a, b);
+        }
+
+        @Override
+        public long add(long aggregate, long delta, int length) {
+            return aggregate + delta;
+        }
+
+        @Override
+        public long assign(long value, int length) {
+            return value;
+        }
+    };
+
+    /**
+     * Range maximums.
+     */
+    LongMonoid MAX = new LongMonoid() {
+        @Override
+        public long identity() {
+            return Long.MIN_VALUE;
+        }
+
+        @Override
+        public long combine(long a, long b) {
+            return Math.max(a, b);
+        }
+
+        @Override
+        public long add(long aggregate, long delta, int length) {
+            return aggregate + delta;
+        }
+
+        @Override
+        public long assign(long value, int length) {
+            return value;
+        }
+    };
+
+    /**
+     * The aggregate of an empty range; combining with it changes nothing.
+     *
+     * @return The identity element.
+     */
+    long identity();
+
+    /**
+     * Aggregates two adjacent ranges.
+     *
+     * @param a The aggregate of the left range.
+     * @param b The aggregate of the right range.
+     * @return The aggregate of both ranges.
+     */
+    long combine(long a, long b);
+
+    /**
+     * Computes a range's aggregate after delta is added to every element.
+     *
+     * @param aggregate The range's aggregate.
+     * @param delta     The amount added to every element.
+     * @param length    The number of elements in the range.
+     * @return The new aggregate.
+     */
+    long add(long aggregate, long delta, int length);
+
+    /**
+     * Computes a range's aggregate after every element is set to value.
+     *
+     * @param value  The value of every element.
+     * @param length The number of elements in the range.
+     * @return The new aggregate.
+     */
+    long assign(long value, int length);
+}
@@ -0,0 +1,711 @@
+package data_structures.trie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable, path-compressed Trie (a radix tree) stored in packed primitive buffers -- there is no object per node.
+ * Supports searching of words, prefixes, and '.'-wildcard patterns, and ordered enumeration of every word under a
+ * prefix.
+ * <p>
+ * Each node is four ints: the start and length of its edge label in a shared char buffer, the index of its first
+ * child, and its child count (with a terminal flag in the top bit). A node's children are contiguous and sorted by
+ * the first char of their labels, so finding a child is a binary search. {@link #find} and {@link #isPrefix} do not
+ * allocate.
+ * <p>
+ * A trie can be saved to a file and loaded back memory-mapped, so that a large dictionary is paged in by the OS
+ * rather than read onto the heap. One mapping cannot exceed 2 GB, so both buffers are held as chunks of at most 1 GB
+ * each, whether mapped or on the heap. Instances are safe to share between threads.
+ *
+ * @version 1.0
+ */
+public final class CompactTrie {
+    private static final int MAGIC = 0x54524945; // "TRIE"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int INTS_PER_NODE = 4;
+    private static final int LABEL_START = 0;
+    private static final int LABEL_LENGTH = 1;
+    private static final int FIRST_CHILD = 2;
+    private static final int CHILD_COUNT = 3;
+    private static final int TERMINAL_FLAG = 1 << 31;
+    private static final int ROOT = 0;
+    // Some VMs reserve a few header words in an array, so the largest safe length is a little under 2^31.
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int MAX_NODES = MAX_ARRAY_LENGTH / INTS_PER_NODE;
+    // Chunks of 2^28 ints and 2^29 chars are 1 GB each, safely under the 2 GB limit of one mapping.
+    private static final int NODE_CHUNK_BITS = 28;
+    private static final int LABEL_CHUNK_BITS = 29;
+
+    private final IntBuffer[] nodes;
+    private final CharBuffer[] labels;
+    private final int keyCount;
+    private final int nodeCount;
+    private final int labelCount;
+
+    /**
+     * Wraps already-built buffers.
+     *
+     * @param nodes      The packed nodes, in chunks of 2^NODE_CHUNK_BITS ints (the last may be shorter).
+     * @param labels     The concatenated edge labels, in chunks of 2^LABEL_CHUNK_BITS chars (the last may be
+     *                   shorter).
+     * @param keyCount   The number of words.
+     * @param nodeCount  The number of nodes.
+     * @param labelCount The total number of label chars.
+     */
+    private CompactTrie(IntBuffer[] nodes, CharBuffer[] labels, int keyCount, int nodeCount, int labelCount) {
+        this.nodes = nodes;
+        this.labels = labels;
+        this.keyCount = keyCount;
+        this.nodeCount = nodeCount;
+        this.labelCount = labelCount;
+    }
+
+    /**
+     * Builds a trie from words in ascending {@link String#compareTo} (i.e. char) order. Duplicates are ignored.
+     *
+     * @param sortedKeys The words, sorted.
+     * @return The trie.
+     */
+    public static CompactTrie fromSorted(List<? extends CharSequence> sortedKeys) {
+        for (int i = 1; i < sortedKeys.size(); i++) {
+            if (compare(sortedKeys.get(i - 1), sortedKeys.get(i)) > 0) {
+                throw new IllegalArgumentException("ERROR: Keys are not sorted at index " + i + ".");
+            }
+        }
+        return new Builder(sortedKeys).build();
+    }
+
+    /**
+     * Loads a trie saved by {@link #save}, memory-mapping its nodes and labels rather than copying them onto the heap.
+     *
+     * @param file The file.
+     * @return The trie.
+     * @throws IOException If the file cannot be read or is not a saved trie.
+     */
+    public static CompactTrie load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("ERROR: Truncated trie file.");
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("ERROR: Not a trie file, or an unsupported version.");
+            }
+            int keyCount = header.getInt();
+            int nodeCount = header.getInt();
+            int labelCount = header.getInt();
+            if (keyCount < 0 || nodeCount < 1 || nodeCount > MAX_NODES || labelCount < 0) {
+                throw new IOException("ERROR: Corrupt trie file header.");
+            }
+            int nodeInts = nodeCount * INTS_PER_NODE;
+            long nodeBytes = (long) nodeInts * Integer.BYTES;
+            long labelBytes = (long) labelCount * Character.BYTES;
+            if (channel.size() < HEADER_BYTES + nodeBytes + labelBytes) {
+                throw new IOException("ERROR: Truncated trie file.");
+            }
+
+            IntBuffer[] nodes = new IntBuffer[chunkCount(nodeInts, NODE_CHUNK_BITS)];
+            for (int i = 0; i < nodes.length; i++) {
+                long first = (long) i << NODE_CHUNK_BITS;
+                long length = Math.min(1L << NODE_CHUNK_BITS, nodeInts - first);
+                nodes[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * Integer.BYTES,
+                        length * Integer.BYTES).asIntBuffer();
+            }
+            CharBuffer[] labels = new CharBuffer[chunkCount(labelCount, LABEL_CHUNK_BITS)];
+            for (int i = 0; i < labels.length; i++) {
+                long first = (long) i << LABEL_CHUNK_BITS;
+                long length = Math.min(1L << LABEL_CHUNK_BITS, labelCount - first);
+                labels[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + nodeBytes + first * Character.BYTES, length * Character.BYTES).asCharBuffer();
+            }
+            return new CompactTrie(nodes, labels, keyCount, nodeCount, labelCount);
+        }
+    }
+
+    /**
+     * Saves the trie to a file, replacing it if it exists.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(keyCount).putInt(nodeCount).putInt(labelCount);
+            header.flip();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+            int nodeInts = nodeCount * INTS_PER_NODE;
+            for (int i = 0; i < nodeInts; i++) {
+                if (chunk.remaining() < Integer.BYTES) {
+                    chunk.flip();
+                    writeFully(channel, chunk);
+                    chunk.clear();
+                }
+                chunk.putInt(nodeInt(i));
+            }
+            for (int i = 0; i < labelCount; i++) {
+                if (chunk.remaining() < Character.BYTES) {
+                    chunk.flip();
+                    writeFully(channel, chunk);
+                    chunk.clear();
+                }
+                chunk.putChar(labelChar(i));
+            }
+            chunk.flip();
+            writeFully(channel, chunk);
+        }
+    }
+
+    /**
+     * Searches for a word in the Trie.
+     *
+     * @param word A word.
+     * @return True if the word is in the Trie.
+     */
+    public boolean find(CharSequence word) {
+        int node = ROOT;
+        int pos = 0;
+        while (pos < word.length()) {
+            int child = findChild(node, word.charAt(pos));
+            if (child < 0) {
+                return false;
+            }
+            int labelLength = labelLength(child);
+            if (pos + labelLength > word.length() || !labelMatches(child, word, pos, labelLength)) {
+                return false;
+            }
+            pos += labelLength;
+            node = child;
+        }
+        return isTerminal(node);
+    }
+
+    /**
+     * Searches for a prefix in the Trie.
+     *
+     * @param prefix A prefix.
+     * @return True if some word in the Trie starts with prefix.
+     */
+    public boolean isPrefix(CharSequence prefix) {
+        return locate(prefix) >= 0;
+    }
+
+    /**
+     * Searches for patterns such that '.' can be matched with any character.
+     * Example: 'm.d' can match 'mad', 'mbd', ... , 'mzd'.
+     *
+     * @param pattern A word, possibly with '.' wildcards.
+     * @return True if some word in the Trie matches the pattern.
+     */
+    public boolean findRegex(CharSequence pattern) {
+        return findRegex(pattern, ROOT, 0);
+    }
+
+    /**
+     * Streams every word that starts with prefix, in ascending order. Words are produced lazily.
+     *
+     * @param prefix A prefix; empty to stream every word.
+     * @return The matching words.
+     */
+    public Stream<String> streamWithPrefix(CharSequence prefix) {
+        int found = locate(prefix);
+        if (found < 0) {
+            return Stream.empty();
+        }
+        int node = found >>> 1;
+        StringBuilder start = new StringBuilder(prefix);
+        if ((found & 1) == 1) {
+            // The prefix ends partway through this node's label; complete the label.
+            int labelStart = labelStart(node);
+            int labelLength = labelLength(node);
+            int covered = prefix.length() - pathLengthBefore(prefix, node);
+            for (int i = covered; i < labelLength; i++) {
+                start.append(labelChar(labelStart + i));
+            }
+        }
+        Iterator<String> words = new WordIterator(node, start);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(words,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Accessor of the number of words.
+     *
+     * @return The number of words in the Trie.
+     */
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Accessor of the number of nodes, including the root.
+     *
+     * @return The number of nodes in the Trie.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Walks the trie along a prefix.
+     *
+     * @param prefix The prefix.
+     * @return -1 if no word starts with prefix; else the node where the prefix ends, shifted left by one, with the
+     * low bit set if the prefix ends partway through that node's label.
+     */
+    private int locate(CharSequence prefix) {
+        int node = ROOT;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int child = findChild(node, prefix.charAt(pos));
+            if (child < 0) {
+                return -1;
+            }
+            int labelLength = labelLength(child);
+            int compared = Math.min(labelLength, prefix.length() - pos);
+            if (!labelMatches(child, prefix, pos, compared)) {
+                return -1;
+            }
+            if (compared < labelLength) {
+                return child << 1 | 1;
+            }
+            pos += labelLength;
+            node = child;
+        }
+        return node << 1;
+    }
+
+    /**
+     * Recomputes how many chars of prefix are consumed by the ancestors of the node where it ends.
+     *
+     * @param prefix The prefix.
+     * @param target The node where the prefix ends.
+     * @return The length of the path above target.
+     */
+    private int pathLengthBefore(CharSequence prefix, int target) {
+        int node = ROOT;
+        int pos = 0;
+        while (true) {
+            int child = findChild(node, prefix.charAt(pos));
+            if (child == target) {
+                return pos;
+            }
+            pos += labelLength(child);
+            node = child;
+        }
+    }
+
+    /**
+     * Recursive helper for wildcard search.
+     *
+     * @param pattern The pattern.
+     * @param node    The node whose label has just been matched.
+     * @param pos     Where we will try matching from in the pattern.
+     * @return True if a word under node matches the rest of the pattern.
+     */
+    private boolean findRegex(CharSequence pattern, int node, int pos) {
+        if (pos == pattern.length()) {
+            return isTerminal(node);
+        }
+        int first = firstChild(node);
+        int end = first + childCount(node);
+        char c = pattern.charAt(pos);
+        if (c != '.') {
+            int child = findChild(node, c);
+            first = child;
+            end = child < 0 ? child : child + 1;
+        }
+        for (int child = first; child < end; child++) {
+            int labelStart = labelStart(child);
+            int labelLength = labelLength(child);
+            if (pos + labelLength > pattern.length()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < labelLength && matches; i++) {
+                char p = pattern.charAt(pos + i);
+                matches = p == '.' || p == labelChar(labelStart + i);
+            }
+            if (matches && findRegex(pattern, child, pos + labelLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binary-searches a node's children for the one whose label starts with c.
+     *
+     * @param node The parent node.
+     * @param c    The first char of the child's label.
+     * @return The child, or -1 if there is none.
+     */
+    private int findChild(int node, char c) {
+        int lo = firstChild(node);
+        int hi = lo + childCount(node) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midChar = labelChar(labelStart(mid));
+            if (midChar < c) {
+                lo = mid + 1;
+            } else if (midChar > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the start of a node's label against part of a word.
+     *
+     * @param node   The node.
+     * @param word   The word.
+     * @param pos    The position in the word where the label should start.
+     * @param length The number of chars to compare.
+     * @return True if they match.
+     */
+    private boolean labelMatches(int node, CharSequence word, int pos, int length) {
+        int labelStart = labelStart(node);
+        for (int i = 0; i < length; i++) {
+            if (labelChar(labelStart + i) != word.charAt(pos + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads one int of the packed nodes.
+     *
+     * @param index The int's index.
+     * @return The int.
+     */
+    private int nodeInt(int index) {
+        return nodes[index >>> NODE_CHUNK_BITS].get(index & ((1 << NODE_CHUNK_BITS) - 1));
+    }
+
+    /**
+     * Reads one char of the concatenated labels.
+     *
+     * @param index The char's index.
+     * @return The char.
+     */
+    private char labelChar(int index) {
+        return labels[index >>> LABEL_CHUNK_BITS].get(index & ((1 << LABEL_CHUNK_BITS) - 1));
+    }
+
+    private int labelStart(int node) {
+        return nodeInt(node * INTS_PER_NODE + LABEL_START);
+    }
+
+    private int labelLength(int node) {
+        return nodeInt(node * INTS_PER_NODE + LABEL_LENGTH);
+    }
+
+    private int firstChild(int node) {
+        return nodeInt(node * INTS_PER_NODE + FIRST_CHILD);
+    }
+
+    private int childCount(int node) {
+        return nodeInt(node * INTS_PER_NODE + CHILD_COUNT) & ~TERMINAL_FLAG;
+    }
+
+    private boolean isTerminal(int node) {
+        return (nodeInt(node * INTS_PER_NODE + CHILD_COUNT) & TERMINAL_FLAG) != 0;
+    }
+
+    /**
+     * Lexicographic char-by-char comparison, as in {@link String#compareTo}.
+     *
+     * @param a The first sequence.
+     * @param b The second sequence.
+     * @return Negative, zero, or positive as a is less than, equal to, or greater than b.
+     */
+    private static int compare(CharSequence a, CharSequence b) {
+        int common = Math.min(a.length(), b.length());
+        for (int i = 0; i < common; i++) {
+            int diff = a.charAt(i) - b.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Computes how many chunks hold a number of elements.
+     *
+     * @param length    The number of elements.
+     * @param chunkBits The log2 of the chunk size.
+     * @return The number of chunks; at least one, so that an empty buffer is still a valid chunk list.
+     */
+    private static int chunkCount(long length, int chunkBits) {
+        return (int) Math.max(1, (length + (1L << chunkBits) - 1) >>> chunkBits);
+    }
+
+    /**
+     * Computes the new length of a builder array that must hold at least required elements.
+     *
+     * @param length   The current length.
+     * @param required The number of elements needed.
+     * @param limit    The largest length allowed.
+     * @return The new length: double the current one, capped at limit.
+     */
+    private static int grownLength(int length, long required, int limit) {
+        if (required > limit) {
+            throw new IllegalArgumentException("ERROR: Too many keys for one trie; its arrays would exceed "
+                    + limit + " elements.");
+        }
+        return (int) Math.min(limit, Math.max(required, 2L * length));
+    }
+
+    /**
+     * Writes a whole buffer to a channel.
+     *
+     * @param channel The channel.
+     * @param buffer  The buffer, flipped for reading.
+     * @throws IOException If the write fails.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Enumerates the words under a node in ascending order, using an explicit depth-first stack.
+     */
+    private final class WordIterator implements Iterator<String> {
+        private final StringBuilder word;
+        private int[] stackNodes = new int[16];
+        private int[] stackLengths = new int[16];
+        private int stackSize;
+        private String next;
+
+        /**
+         * Starts enumeration at a node.
+         *
+         * @param node The node.
+         * @param path The word spelled by the path to (and including) node.
+         */
+        WordIterator(int node, StringBuilder path) {
+            this.word = path;
+            pushChildren(node);
+            // A node's own word sorts before every word below it.
+            if (isTerminal(node)) {
+                next = word.toString();
+            } else {
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            advance();
+            return result;
+        }
+
+        /**
+         * Pops nodes, spelling out their words, until one is terminal.
+         */
+        private void advance() {
+            next = null;
+            while (stackSize > 0 && next == null) {
+                stackSize--;
+                int node = stackNodes[stackSize];
+                word.setLength(stackLengths[stackSize]);
+                int labelStart = labelStart(node);
+                int labelLength = labelLength(node);
+                for (int i = 0; i < labelLength; i++) {
+                    word.append(labelChar(labelStart + i));
+                }
+                pushChildren(node);
+                if (isTerminal(node)) {
+                    next = word.toString();
+                }
+            }
+        }
+
+        /**
+         * Pushes a node's children in reverse order, so that they pop in ascending order.
+         *
+         * @param node The node; its word must currently be spelled out.
+         */
+        private void pushChildren(int node) {
+            int first = firstChild(node);
+            for (int child = first + childCount(node) - 1; child >= first; child--) {
+                if (stackSize == stackNodes.length) {
+                    stackNodes = Arrays.copyOf(stackNodes, stackSize * 2);
+                    stackLengths = Arrays.copyOf(stackLengths, stackSize * 2);
+                }
+                stackNodes[stackSize] = child;
+                stackLengths[stackSize] = word.length();
+                stackSize++;
+            }
+        }
+    }
+
+    /**
+     * Builds the packed buffers from sorted words. Each node's children are allocated together, so they end up
+     * contiguous and in ascending order.
+     */
+    private static final class Builder {
+        private final List<? extends CharSequence> keys;
+        private int[] nodes = new int[INTS_PER_NODE * 64];
+        private char[] labels = new char[256];
+        private int nodeCount;
+        private int labelCount;
+        private int keyCount;
+
+        Builder(List<? extends CharSequence> keys) {
+            this.keys = keys;
+        }
+
+        CompactTrie build() {
+            int root = allocateNode();
+            // Work items: the node, the range [from, to) of words below it, and the length of its path.
+            Deque<int[]> work = new ArrayDeque<>();
+            work.push(new int[]{root, 0, keys.size(), 0});
+            while (!work.isEmpty()) {
+                int[] item = work.pop();
+                expand(item[0], item[1], item[2], item[3], work);
+            }
+            int nodeInts = nodeCount * INTS_PER_NODE;
+            IntBuffer[] nodeChunks = new IntBuffer[chunkCount(nodeInts, NODE_CHUNK_BITS)];
+            for (int i = 0; i < nodeChunks.length; i++) {
+                int first = i << NODE_CHUNK_BITS;
+                nodeChunks[i] = IntBuffer.wrap(nodes, first, Math.min(1 << NODE_CHUNK_BITS, nodeInts - first)).slice();
+            }
+            CharBuffer[] labelChunks = new CharBuffer[chunkCount(labelCount, LABEL_CHUNK_BITS)];
+            for (int i = 0; i < labelChunks.length; i++) {
+                int first = i << LABEL_CHUNK_BITS;
+                labelChunks[i] = CharBuffer.wrap(labels, first,
+                        Math.min(1 << LABEL_CHUNK_BITS, labelCount - first)).slice();
+            }
+            return new CompactTrie(nodeChunks, labelChunks, keyCount, nodeCount, labelCount);
+        }
+
+        /**
+         * Marks a node terminal if a word ends at it, then creates its children: one per distinct next char, each
+         * labelled with the longest prefix its words share.
+         *
+         * @param node  The node.
+         * @param from  The first word below the node, inclusive.
+         * @param to    The last word below the node, exclusive.
+         * @param depth The length of the node's path.
+         * @param work  The pending work items.
+         */
+        private void expand(int node, int from, int to, int depth, Deque<int[]> work) {
+            int childCountField = 0;
+            while (from < to && keys.get(from).length() == depth) {
+                // Sorted order puts the word ending here first; skip any duplicates of it.
+                if (childCountField == 0) {
+                    childCountField = TERMINAL_FLAG;
+                    keyCount++;
+                }
+                from++;
+            }
+
+            int groups = 0;
+            for (int i = from; i < to; i = groupEnd(i, to, depth)) {
+                groups++;
+            }
+            int firstChild = nodeCount;
+            for (int i = 0; i < groups; i++) {
+                allocateNode();
+            }
+            nodes[node * INTS_PER_NODE + FIRST_CHILD] = firstChild;
+            nodes[node * INTS_PER_NODE + CHILD_COUNT] = childCountField | groups;
+
+            int child = firstChild;
+            for (int groupStart = from; groupStart < to; child++) {
+                int groupEnd = groupEnd(groupStart, to, depth);
+                CharSequence first = keys.get(groupStart);
+                int childDepth = depth + commonPrefixLength(first, keys.get(groupEnd - 1), depth);
+                nodes[child * INTS_PER_NODE + LABEL_START] = labelCount;
+                nodes[child * INTS_PER_NODE + LABEL_LENGTH] = childDepth - depth;
+                for (int i = depth; i < childDepth; i++) {
+                    appendLabel(first.charAt(i));
+                }
+                work.push(new int[]{child, groupStart, groupEnd, childDepth});
+                groupStart = groupEnd;
+            }
+        }
+
+        /**
+         * Finds the end of the run of words sharing the char at depth with the word at from.
+         *
+         * @param from  The first word of the run.
+         * @param to    The end of the words under consideration.
+         * @param depth The position of the shared char.
+         * @return The first word after the run.
+         */
+        private int groupEnd(int from, int to, int depth) {
+            char c = keys.get(from).charAt(depth);
+            int end = from + 1;
+            while (end < to && keys.get(end).charAt(depth) == c) {
+                end++;
+            }
+            return end;
+        }
+
+        /**
+         * Computes how many chars two words share from a position onwards; since the words are sorted, the first
+         * and last words of a run bound the prefix shared by the whole run.
+         *
+         * @param a     The first word.
+         * @param b     The last word.
+         * @param depth Where to start comparing.
+         * @return The shared length past depth.
+         */
+        private static int commonPrefixLength(CharSequence a, CharSequence b, int depth) {
+            int limit = Math.min(a.length(), b.length());
+            int i = depth;
+            while (i < limit && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i - depth;
+        }
+
+        private int allocateNode() {
+            long required = (nodeCount + 1L) * INTS_PER_NODE;
+            if (required > nodes.length) {
+                nodes = Arrays.copyOf(nodes, grownLength(nodes.length, required, MAX_NODES * INTS_PER_NODE));
+            }
+            return nodeCount++;
+        }
+
+        private void appendLabel(char c) {
+            if (labelCount == labels.length) {
+                labels = Arrays.copyOf(labels, grownLength(labels.length, labelCount + 1L, MAX_ARRAY_LENGTH));
+            }
+            labels[labelCount++] = c;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package data_structures.union_find;
+
+/**
+ * A single-threaded union-find stored in primitive arrays, using union by rank and path halving.
+ *
+ * @version 1.0
+ */
+public class ArrayUnionFind implements UnionFind {
+    private final int[] parent;
+    private final byte[] rank;
+    private int setCount;
+
+    /**
+     * Creates one singleton set per element.
+     *
+     * @param size The number of elements.
+     */
+    public ArrayUnionFind(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative.");
+        }
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        setCount = size;
+    }
+
+    /**
+     * Path-halving find routine: every other node on the path is pointed at its grandparent.
+     *
+     * @param x An element.
+     * @return The representative of x's set.
+     */
+    @Override
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Union-by-rank.
+     *
+     * @param x Element one.
+     * @param y Element two.
+     * @return True if the sets were merged.
+     */
+    @Override
+    public boolean union(int x, int y) {
+        int xr = find(x);
+        int yr = find(y);
+        if (xr == yr) {
+            return false;
+        }
+        if (rank[xr] < rank[yr]) {
+            parent[xr] = yr;
+        } else if (rank[xr] > rank[yr]) {
+            parent[yr] = xr;
+        } else {
+            parent[yr] = xr;
+            rank[xr]++;
+        }
+        setCount--;
+        return true;
+    }
+
+    @Override
+    public boolean isConnected(int x, int y) {
+        return find(x) == find(y);
+    }
+
+    @Override
+    public int size() {
+        return parent.length;
+    }
+
+    @Override
+    public int getSetCount() {
+        return setCount;
+    }
+}
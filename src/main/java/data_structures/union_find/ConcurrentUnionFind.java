@@ -0,0 +1,132 @@
+package data_structures.union_find;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free union-find that many threads may update at once. Parents live in an {@link AtomicIntegerArray}:
+ * <ul>
+ *     <li>find uses path halving, where each compression step is a single compare-and-set that only ever moves a
+ *     parent pointer closer to the root, so a failed step can simply be ignored; find never waits on another
+ *     thread.</li>
+ *     <li>union links one root under the other with a compare-and-set, retrying if another thread linked either
+ *     root first. Roots are ordered by a fixed pseudo-random priority of their index (randomized linking by
+ *     index), which keeps trees shallow in expectation without storing ranks.</li>
+ * </ul>
+ * Reference: Jayanti and Tarjan, "A Randomized Concurrent Algorithm for Disjoint Set Union" (PODC 2016).
+ *
+ * @version 1.0
+ */
+public class ConcurrentUnionFind implements UnionFind {
+    private final AtomicIntegerArray parent;
+    private final LongAdder unions = new LongAdder();
+
+    /**
+     * Creates one singleton set per element.
+     *
+     * @param size The number of elements.
+     */
+    public ConcurrentUnionFind(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative.");
+        }
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    @Override
+    public int find(int x) {
+        int curr = x;
+        while (true) {
+            int p = parent.get(curr);
+            if (p == curr) {
+                return curr;
+            }
+            int gp = parent.get(p);
+            if (p != gp) {
+                // Halving step; if it loses a race, another thread has already moved curr's parent upwards.
+                parent.compareAndSet(curr, p, gp);
+            }
+            curr = gp;
+        }
+    }
+
+    @Override
+    public boolean union(int x, int y) {
+        while (true) {
+            int xr = find(x);
+            int yr = find(y);
+            if (xr == yr) {
+                return false;
+            }
+            // Always link the lower-priority root under the higher-priority one.
+            if (hasLowerPriority(yr, xr)) {
+                int tmp = xr;
+                xr = yr;
+                yr = tmp;
+            }
+            if (parent.compareAndSet(xr, xr, yr)) {
+                unions.increment();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isConnected(int x, int y) {
+        while (true) {
+            int xr = find(x);
+            int yr = find(y);
+            if (xr == yr) {
+                return true;
+            }
+            // If xr is still a root, x and y were in different sets when yr was found.
+            if (parent.get(xr) == xr) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * Accessor of the number of disjoint sets; exact once all concurrent unions have completed.
+     *
+     * @return The number of sets.
+     */
+    @Override
+    public int getSetCount() {
+        return (int) (parent.length() - unions.sum());
+    }
+
+    /**
+     * Orders elements by a fixed pseudo-random priority, breaking ties by index.
+     *
+     * @param a Element one.
+     * @param b Element two.
+     * @return True if a should be linked under b.
+     */
+    private static boolean hasLowerPriority(int a, int b) {
+        int pa = mix(a);
+        int pb = mix(b);
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    /**
+     * Scrambles an index into its priority.
+     *
+     * @param x The index.
+     * @return The priority.
+     */
+    private static int mix(int x) {
+        int h = x * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,50 @@
+package data_structures.union_find;
+
+/**
+ * A union-find (also called "disjoint-set") data structure over the elements 0 to size - 1. Very useful for tracking
+ * high-level structure within a graph like connected components.
+ *
+ * @version 1.0
+ */
+public interface UnionFind {
+
+    /**
+     * Finds the representative of the set containing an element.
+     *
+     * @param x An element.
+     * @return The representative of x's set (a proxy for the set itself).
+     */
+    int find(int x);
+
+    /**
+     * Merges the sets containing two elements.
+     *
+     * @param x Element one.
+     * @param y Element two.
+     * @return True if the sets were merged, false if x and y were already in the same set.
+     */
+    boolean union(int x, int y);
+
+    /**
+     * Tests if two elements are in the same set.
+     *
+     * @param x Element one.
+     * @param y Element two.
+     * @return True if x and y are in the same set.
+     */
+    boolean isConnected(int x, int y);
+
+    /**
+     * Accessor of the number of elements.
+     *
+     * @return The number of elements.
+     */
+    int size();
+
+    /**
+     * Accessor of the number of disjoint sets.
+     *
+     * @return The number of sets.
+     */
+    int getSetCount();
+}
@@ -0,0 +1,134 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, fixed-size latency histogram in the style of HdrHistogram: buckets are linear below 64 and
+ * log-linear above (32 sub-buckets per power of two), so every recorded value is kept to within about 3% while
+ * the whole range of a long fits in under two thousand counters.
+ *
+ * @version 1.0
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_LOG_EXPONENT = 6;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - FIRST_LOG_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records one value.
+     *
+     * @param value The value (e.g. a latency in nanoseconds); negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        counts.incrementAndGet(bucketOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+        maxValue.accumulate(clamped);
+    }
+
+    /**
+     * Accessor of the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Accessor of the largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing has been recorded.
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Computes the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing has been recorded.
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * Estimates the value at a percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value equivalent to the bucket holding the percentile, or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.reset();
+    }
+
+    /**
+     * Maps a non-negative value to its bucket.
+     *
+     * @param value The value.
+     * @return The bucket index.
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - FIRST_LOG_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Computes the largest value that maps to a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The bucket's upper bound.
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_LOG_EXPONENT;
+        long top = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((top + 1) << shift) - 1;
+    }
+}
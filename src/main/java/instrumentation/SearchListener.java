@@ -0,0 +1,45 @@
+package instrumentation;
+
+/**
+ * A hook notified after every search completes, with that search's counters and latency.
+ * <p>
+ * Searches only allocate counters, read the clock and call the listener when {@link #isEnabled()} is true; otherwise
+ * they update the shared {@link SearchStats#DISABLED} counters, which ignore every update. So the default
+ * {@link #NO_OP} listener costs close to nothing.
+ *
+ * @version 1.0
+ */
+public interface SearchListener {
+
+    /**
+     * A listener that ignores every search.
+     */
+    SearchListener NO_OP = new SearchListener() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void onSearchComplete(SearchType type, SearchStats stats, long elapsedNanos) {
+        }
+    };
+
+    /**
+     * Whether searches should time themselves and report to this listener.
+     *
+     * @return True if this listener wants to be notified.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called on the searching thread once a search completes.
+     *
+     * @param type         The kind of search.
+     * @param stats        The search's counters; only valid for the duration of the call.
+     * @param elapsedNanos The wall-clock duration of the search.
+     */
+    void onSearchComplete(SearchType type, SearchStats stats, long elapsedNanos);
+}
@@ -0,0 +1,221 @@
+package instrumentation;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link SearchListener} that aggregates counters and latency histograms per {@link SearchType}, and can publish
+ * them as JMX MBeans. Safe to share between any number of searches and threads.
+ *
+ * @version 1.0
+ */
+public class SearchMetrics implements SearchListener {
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final Map<SearchType, Aggregate> aggregates = new EnumMap<>(SearchType.class);
+
+    /**
+     * Constructs an empty set of metrics.
+     */
+    public SearchMetrics() {
+        for (SearchType type : SearchType.values()) {
+            aggregates.put(type, new Aggregate());
+        }
+    }
+
+    /**
+     * Folds one search's counters and latency into the aggregates.
+     *
+     * @param type         The kind of search.
+     * @param stats        The search's counters.
+     * @param elapsedNanos The wall-clock duration of the search.
+     */
+    @Override
+    public void onSearchComplete(SearchType type, SearchStats stats, long elapsedNanos) {
+        aggregates.get(type).add(stats, elapsedNanos);
+    }
+
+    /**
+     * Accessor of the aggregated metrics for a kind of search.
+     *
+     * @param type The kind of search.
+     * @return The metrics.
+     */
+    public SearchMetricsMXBean get(SearchType type) {
+        return aggregates.get(type);
+    }
+
+    /**
+     * Accessor of the latency histogram (in nanoseconds) for a kind of search.
+     *
+     * @param type The kind of search.
+     * @return The histogram.
+     */
+    public LatencyHistogram getLatencyHistogram(SearchType type) {
+        return aggregates.get(type).latency;
+    }
+
+    /**
+     * Registers one MBean per search type with the platform MBean server, named
+     * {@code <domain>:type=SearchMetrics,name=<SEARCH_TYPE>}.
+     *
+     * @param domain The JMX domain to register under.
+     */
+    public void registerMBeans(String domain) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Map.Entry<SearchType, Aggregate> entry : aggregates.entrySet()) {
+                ObjectName name = objectName(domain, entry.getKey());
+                try {
+                    server.registerMBean(entry.getValue(), name);
+                } catch (InstanceAlreadyExistsException e) {
+                    server.unregisterMBean(name);
+                    server.registerMBean(entry.getValue(), name);
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("ERROR: Could not register search metrics MBeans.", e);
+        }
+    }
+
+    /**
+     * Unregisters the MBeans previously registered under a domain.
+     *
+     * @param domain The JMX domain they were registered under.
+     */
+    public void unregisterMBeans(String domain) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (SearchType type : aggregates.keySet()) {
+                try {
+                    server.unregisterMBean(objectName(domain, type));
+                } catch (InstanceNotFoundException e) {
+                    // Already gone; nothing to do.
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("ERROR: Could not unregister search metrics MBeans.", e);
+        }
+    }
+
+    /**
+     * Builds the JMX name of a search type's MBean.
+     *
+     * @param domain The JMX domain.
+     * @param type   The kind of search.
+     * @return The object name.
+     * @throws JMException If the domain is not a valid JMX domain.
+     */
+    private static ObjectName objectName(String domain, SearchType type) throws JMException {
+        return new ObjectName(domain + ":type=SearchMetrics,name=" + type.name());
+    }
+
+    /**
+     * Running totals for one kind of search.
+     */
+    private static final class Aggregate implements SearchMetricsMXBean {
+        private final LongAdder nodesSettled = new LongAdder();
+        private final LongAdder edgesRelaxed = new LongAdder();
+        private final LongAdder heapPushes = new LongAdder();
+        private final LongAdder heapPops = new LongAdder();
+        private final LongAdder nodesVisited = new LongAdder();
+        private final LongAdder distanceEvaluations = new LongAdder();
+        private final LongAdder prunedSubtrees = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void add(SearchStats stats, long elapsedNanos) {
+            nodesSettled.add(stats.getNodesSettled());
+            edgesRelaxed.add(stats.getEdgesRelaxed());
+            heapPushes.add(stats.getHeapPushes());
+            heapPops.add(stats.getHeapPops());
+            nodesVisited.add(stats.getNodesVisited());
+            distanceEvaluations.add(stats.getDistanceEvaluations());
+            prunedSubtrees.add(stats.getPrunedSubtrees());
+            latency.record(elapsedNanos);
+        }
+
+        @Override
+        public long getSearchCount() {
+            return latency.getCount();
+        }
+
+        @Override
+        public long getNodesSettled() {
+            return nodesSettled.sum();
+        }
+
+        @Override
+        public long getEdgesRelaxed() {
+            return edgesRelaxed.sum();
+        }
+
+        @Override
+        public long getHeapPushes() {
+            return heapPushes.sum();
+        }
+
+        @Override
+        public long getHeapPops() {
+            return heapPops.sum();
+        }
+
+        @Override
+        public long getNodesVisited() {
+            return nodesVisited.sum();
+        }
+
+        @Override
+        public long getDistanceEvaluations() {
+            return distanceEvaluations.sum();
+        }
+
+        @Override
+        public long getPrunedSubtrees() {
+            return prunedSubtrees.sum();
+        }
+
+        @Override
+        public double getMeanLatencyMicros() {
+            return latency.getMean() / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP50LatencyMicros() {
+            return latency.getValueAtPercentile(50) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP99LatencyMicros() {
+            return latency.getValueAtPercentile(99) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP999LatencyMicros() {
+            return latency.getValueAtPercentile(99.9) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getMaxLatencyMicros() {
+            return latency.getMax() / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public void reset() {
+            nodesSettled.reset();
+            edgesRelaxed.reset();
+            heapPushes.reset();
+            heapPops.reset();
+            nodesVisited.reset();
+            distanceEvaluations.reset();
+            prunedSubtrees.reset();
+            latency.reset();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package instrumentation;
+
+/**
+ * The JMX view of the aggregated metrics for one {@link SearchType}. Latencies are in microseconds.
+ *
+ * @version 1.0
+ */
+public interface SearchMetricsMXBean {
+
+    /**
+     * @return The number of completed searches.
+     */
+    long getSearchCount();
+
+    /**
+     * @return The total number of settled graph vertices.
+     */
+    long getNodesSettled();
+
+    /**
+     * @return The total number of relaxed edges.
+     */
+    long getEdgesRelaxed();
+
+    /**
+     * @return The total number of priority-queue pushes.
+     */
+    long getHeapPushes();
+
+    /**
+     * @return The total number of priority-queue pops.
+     */
+    long getHeapPops();
+
+    /**
+     * @return The total number of visited nodes.
+     */
+    long getNodesVisited();
+
+    /**
+     * @return The total number of distance computations.
+     */
+    long getDistanceEvaluations();
+
+    /**
+     * @return The total number of pruned subtrees.
+     */
+    long getPrunedSubtrees();
+
+    /**
+     * @return The mean search latency.
+     */
+    double getMeanLatencyMicros();
+
+    /**
+     * @return The median search latency.
+     */
+    double getP50LatencyMicros();
+
+    /**
+     * @return The 99th-percentile search latency.
+     */
+    double getP99LatencyMicros();
+
+    /**
+     * @return The 99.9th-percentile search latency.
+     */
+    double getP999LatencyMicros();
+
+    /**
+     * @return The largest search latency.
+     */
+    double getMaxLatencyMicros();
+
+    /**
+     * Clears every counter and the latency histogram.
+     */
+    void reset();
+}
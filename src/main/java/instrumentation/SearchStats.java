@@ -0,0 +1,165 @@
+package instrumentation;
+
+/**
+ * Per-query counters filled in by a search as it runs. Not thread-safe; each search uses its own instance, except
+ * for the shared {@link #DISABLED} instance, which ignores every update.
+ *
+ * @version 1.0
+ */
+public final class SearchStats {
+    /**
+     * Counters that record nothing, used by searches whose listener is disabled so they allocate no stats at all.
+     */
+    public static final SearchStats DISABLED = new SearchStats(false);
+
+    private final boolean recording;
+    private long nodesSettled;
+    private long edgesRelaxed;
+    private long heapPushes;
+    private long heapPops;
+    private long nodesVisited;
+    private long distanceEvaluations;
+    private long prunedSubtrees;
+
+    /**
+     * Constructs a set of counters, all zero.
+     */
+    public SearchStats() {
+        this(true);
+    }
+
+    /**
+     * Constructs a set of counters.
+     *
+     * @param recording Whether updates are recorded.
+     */
+    private SearchStats(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Records a graph vertex whose distance became final.
+     */
+    public void nodeSettled() {
+        if (recording) {
+            nodesSettled++;
+        }
+    }
+
+    /**
+     * Records an edge examined (relaxed) by a graph search.
+     */
+    public void edgeRelaxed() {
+        if (recording) {
+            edgesRelaxed++;
+        }
+    }
+
+    /**
+     * Records a push onto a search's priority queue.
+     */
+    public void heapPush() {
+        if (recording) {
+            heapPushes++;
+        }
+    }
+
+    /**
+     * Records a pop from a search's priority queue.
+     */
+    public void heapPop() {
+        if (recording) {
+            heapPops++;
+        }
+    }
+
+    /**
+     * Records a tree or graph node visited by a traversal.
+     */
+    public void nodeVisited() {
+        if (recording) {
+            nodesVisited++;
+        }
+    }
+
+    /**
+     * Records a distance computation between two points.
+     */
+    public void distanceEvaluated() {
+        if (recording) {
+            distanceEvaluations++;
+        }
+    }
+
+    /**
+     * Records a subtree skipped because it could not contain a result.
+     */
+    public void subtreePruned() {
+        if (recording) {
+            prunedSubtrees++;
+        }
+    }
+
+    /**
+     * Accessor of the number of settled graph vertices.
+     *
+     * @return The count.
+     */
+    public long getNodesSettled() {
+        return nodesSettled;
+    }
+
+    /**
+     * Accessor of the number of relaxed edges.
+     *
+     * @return The count.
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * Accessor of the number of priority-queue pushes.
+     *
+     * @return The count.
+     */
+    public long getHeapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * Accessor of the number of priority-queue pops.
+     *
+     * @return The count.
+     */
+    public long getHeapPops() {
+        return heapPops;
+    }
+
+    /**
+     * Accessor of the number of visited nodes.
+     *
+     * @return The count.
+     */
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Accessor of the number of distance computations.
+     *
+     * @return The count.
+     */
+    public long getDistanceEvaluations() {
+        return distanceEvaluations;
+    }
+
+    /**
+     * Accessor of the number of pruned subtrees.
+     *
+     * @return The count.
+     */
+    public long getPrunedSubtrees() {
+        return prunedSubtrees;
+    }
+}
@@ -0,0 +1,28 @@
+package instrumentation;
+
+/**
+ * The kinds of search reported to a {@link SearchListener}.
+ *
+ * @version 1.0
+ */
+public enum SearchType {
+    /**
+     * A point-to-point shortest-path search (e.g. A*).
+     */
+    SHORTEST_PATH,
+
+    /**
+     * A k-nearest-neighbors search in a KD Tree.
+     */
+    K_NEAREST_NEIGHBORS,
+
+    /**
+     * A radius search in a KD Tree.
+     */
+    RADIUS,
+
+    /**
+     * A bridge-finding depth-first search.
+     */
+    BRIDGES
+}
@@ -0,0 +1,105 @@
+package algorithms;
+
+import algorithms.TestGraph.Link;
+import algorithms.TestGraph.Node;
+import algorithms.util.Penalizer;
+import algorithms.util.SearchBudget;
+import algorithms.util.SearchOutcome;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static algorithms.TestGraph.link;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link AStar} stops when the end vertex is settled, not when it is first reached, and that each budget
+ * limit cuts a search short.
+ *
+ * @version 1.0
+ */
+public class AStarTest {
+    private static final Penalizer<Node> NO_PENALTY = (vertex, end) -> 0.0;
+
+    @Test
+    public void findsTheShortestPathWhenTheEndIsFirstReachedByALongerOne() {
+        // A is settled first and pushes T at 11; only later does B push T at 4.
+        Node s = new Node("S");
+        Node a = new Node("A");
+        Node b = new Node("B");
+        Node t = new Node("T");
+        link(s, a, 1);
+        link(s, b, 2);
+        link(a, t, 10);
+        link(b, t, 2);
+
+        AStar<Node, Link> aStar = new AStar<>(NO_PENALTY);
+        aStar.findShortestPath(s, t);
+        assertEquals(SearchOutcome.FOUND, aStar.getOutcome());
+        assertEquals(Arrays.asList(b, t), aStar.getShortestPath());
+    }
+
+    @Test
+    public void reportsUnreachableEnds() {
+        Node s = new Node("S");
+        Node t = new Node("T");
+        AStar<Node, Link> aStar = new AStar<>(NO_PENALTY);
+        aStar.findShortestPath(s, t);
+        assertEquals(SearchOutcome.UNREACHABLE, aStar.getOutcome());
+        assertTrue(aStar.getShortestPath().isEmpty());
+    }
+
+    @Test
+    public void stopsAtTheMaximumDistance() {
+        List<Node> chain = chain(3, 5);
+        AStar<Node, Link> aStar = new AStar<>(NO_PENALTY, SearchBudget.unlimited().withMaxDistance(7));
+        aStar.findShortestPath(chain.get(0), chain.get(2));
+        assertExhausted(aStar);
+
+        aStar.setSearchBudget(SearchBudget.unlimited().withMaxDistance(10));
+        aStar.findShortestPath(chain.get(0), chain.get(2));
+        assertEquals(SearchOutcome.FOUND, aStar.getOutcome());
+    }
+
+    @Test
+    public void stopsAtTheMaximumSettledNodes() {
+        List<Node> chain = chain(3, 1);
+        AStar<Node, Link> aStar = new AStar<>(NO_PENALTY, SearchBudget.unlimited().withMaxSettledNodes(2));
+        aStar.findShortestPath(chain.get(0), chain.get(2));
+        assertExhausted(aStar);
+
+        aStar.setSearchBudget(SearchBudget.unlimited().withMaxSettledNodes(3));
+        aStar.findShortestPath(chain.get(0), chain.get(2));
+        assertEquals(SearchOutcome.FOUND, aStar.getOutcome());
+    }
+
+    @Test
+    public void stopsAtTheDeadline() {
+        // Long enough that the search cannot finish within the zero-length deadline.
+        List<Node> chain = chain(10_000, 1);
+        AStar<Node, Link> aStar = new AStar<>(NO_PENALTY, SearchBudget.unlimited().withMaxDuration(Duration.ZERO));
+        aStar.findShortestPath(chain.get(0), chain.get(chain.size() - 1));
+        assertExhausted(aStar);
+    }
+
+    private static void assertExhausted(AStar<Node, Link> aStar) {
+        assertEquals(SearchOutcome.BUDGET_EXHAUSTED, aStar.getOutcome());
+        assertTrue(aStar.getShortestPath().isEmpty());
+        assertTrue(aStar.printShortestPath().endsWith("(no path within budget)"));
+    }
+
+    private static List<Node> chain(int length, double weight) {
+        List<Node> nodes = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            nodes.add(new Node(Integer.toString(i)));
+            if (i > 0) {
+                link(nodes.get(i - 1), nodes.get(i), weight);
+            }
+        }
+        return nodes;
+    }
+}
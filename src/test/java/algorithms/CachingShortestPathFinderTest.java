@@ -0,0 +1,97 @@
+package algorithms;
+
+import algorithms.TestGraph.Link;
+import algorithms.TestGraph.Node;
+import algorithms.util.Penalizer;
+import algorithms.util.RouteCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static algorithms.TestGraph.link;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that {@link CachingShortestPathFinder} stays correct as the graph under its {@link RouteCache} changes.
+ *
+ * @version 1.0
+ */
+public class CachingShortestPathFinderTest {
+    private static final Penalizer<Node> NO_PENALTY = (vertex, end) -> 0.0;
+
+    private final Node a = new Node("A");
+    private final Node b = new Node("B");
+    private final Node c = new Node("C");
+    private final Node d = new Node("D");
+    private RouteCache<Node> cache;
+    private CachingShortestPathFinder<Node, Link> finder;
+
+    @Before
+    public void setUp() {
+        cache = new RouteCache<>(100);
+        cache.setAdmissionThreshold(1);
+        finder = new CachingShortestPathFinder<>(AStar::new, NO_PENALTY, cache);
+    }
+
+    @Test
+    public void repeatedQueryIsAnsweredFromTheCache() {
+        link(a, b, 1);
+        link(b, c, 1);
+        finder.findShortestPath(a, c);
+        finder.findShortestPath(a, c);
+        assertEquals(Arrays.asList(b, c), finder.getShortestPath());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void invalidatingAVertexAfterRaisingAWeightReroutes() {
+        link(a, b, 1);
+        Link bc = link(b, c, 1);
+        link(a, d, 1);
+        link(d, c, 5);
+        assertEquals(Collections.singletonList(d), route(a, d));
+        assertEquals(Arrays.asList(b, c), route(a, c));
+
+        bc.setWeight(10);
+        cache.invalidate(b);
+        assertEquals(Arrays.asList(d, c), route(a, c));
+        // The route to D never touched B, so it is still cached.
+        long hits = cache.getHitCount();
+        finder.findShortestPath(a, d);
+        assertEquals(hits + 1, cache.getHitCount());
+    }
+
+    @Test
+    public void invalidatingAVertexAfterRemovingAnEdgeReroutes() {
+        link(a, b, 1);
+        Link bc = link(b, c, 1);
+        link(a, d, 1);
+        link(d, c, 5);
+        assertEquals(Arrays.asList(b, c), route(a, c));
+
+        b.removeEdge(bc);
+        cache.invalidate(b);
+        assertEquals(Arrays.asList(d, c), route(a, c));
+    }
+
+    @Test
+    public void invalidatingAllAfterAddingAnEdgeReroutes() {
+        link(a, b, 5);
+        link(b, c, 5);
+        link(a, d, 1);
+        assertEquals(Arrays.asList(b, c), route(a, c));
+
+        // The new edge opens a shorter route through D for a pair whose cached route never touched D.
+        link(d, c, 1);
+        cache.invalidateAll();
+        assertEquals(Arrays.asList(d, c), route(a, c));
+    }
+
+    private List<Node> route(Node start, Node end) {
+        finder.findShortestPath(start, end);
+        return finder.getShortestPath();
+    }
+}
@@ -0,0 +1,104 @@
+package algorithms;
+
+import data_structures.graph.Edge;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the parallel connected-components driver labels graphs the same way as the sequential one.
+ *
+ * @version 1.0
+ */
+public class ConnectedComponentsTest {
+
+    @Test
+    public void findsComponentsOfASmallGraph() {
+        List<IndexEdge> edges = new ArrayList<>();
+        edges.add(new IndexEdge(0, 1));
+        edges.add(new IndexEdge(1, 2));
+        edges.add(new IndexEdge(3, 4));
+        edges.add(new IndexEdge(5, 5));
+        ConnectedComponents<Integer, IndexEdge> components = new ConnectedComponents<>(edges);
+
+        Map<Integer, Integer> labels = components.findComponents();
+        assertEquals(3, components.getComponentCount());
+        assertEquals(labels.get(0), labels.get(2));
+        assertEquals(labels.get(3), labels.get(4));
+        assertEquals(3, labels.values().stream().distinct().count());
+    }
+
+    @Test
+    public void parallelDriverMatchesSequentialDriver() {
+        Random random = new Random(7);
+        for (int parallelism = 1; parallelism <= 8; parallelism *= 2) {
+            int vertexCount = 50_000;
+            List<IndexEdge> edges = new ArrayList<>();
+            // Slightly fewer edges than vertices leaves many components of varied sizes.
+            for (int i = 0; i < vertexCount * 9 / 10; i++) {
+                edges.add(new IndexEdge(random.nextInt(vertexCount), random.nextInt(vertexCount)));
+            }
+            ConnectedComponents<Integer, IndexEdge> components = new ConnectedComponents<>(edges);
+
+            Map<Integer, Integer> sequential = components.findComponents();
+            int sequentialCount = components.getComponentCount();
+            Map<Integer, Integer> parallel = components.findComponentsInParallel(parallelism);
+
+            assertEquals(sequentialCount, components.getComponentCount());
+            assertEquals(sequential.keySet(), parallel.keySet());
+            // Component IDs may differ, but must map one-to-one.
+            Map<Integer, Integer> sequentialToParallel = new HashMap<>();
+            for (Map.Entry<Integer, Integer> entry : sequential.entrySet()) {
+                Integer previous = sequentialToParallel.putIfAbsent(entry.getValue(), parallel.get(entry.getKey()));
+                if (previous != null) {
+                    assertEquals(previous, parallel.get(entry.getKey()));
+                }
+            }
+            assertEquals(sequentialCount, sequentialToParallel.values().stream().distinct().count());
+        }
+    }
+
+    /**
+     * An unweighted edge between two vertex indices.
+     */
+    private static final class IndexEdge implements Edge<Integer> {
+        private final Integer start;
+        private final Integer end;
+
+        IndexEdge(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public double getWeight() {
+            return 1.0;
+        }
+
+        @Override
+        public Integer getStart() {
+            return start;
+        }
+
+        @Override
+        public Integer getEnd() {
+            return end;
+        }
+
+        @Override
+        public Integer getOpposite(Integer curr) {
+            return curr.equals(start) ? end : start;
+        }
+
+        @Override
+        public String getEdgeLabel() {
+            return start + "-" + end;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package algorithms;
+
+import algorithms.TestGraph.Link;
+import algorithms.TestGraph.Node;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static algorithms.TestGraph.link;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the parallel, streaming distance matrix matches a single-threaded one and delivers rows in order.
+ *
+ * @version 1.0
+ */
+public class DistanceMatrixTest {
+
+    @Test
+    public void parallelRowsMatchSequentialRowsInSourceOrder() {
+        Random random = new Random(11);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            nodes.add(new Node(Integer.toString(i)));
+        }
+        for (int i = 0; i < 1_200; i++) {
+            link(nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size())),
+                    1 + random.nextInt(20));
+        }
+        List<Node> sources = new ArrayList<>();
+        List<Node> targets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            sources.add(nodes.get(random.nextInt(nodes.size())));
+            targets.add(nodes.get(random.nextInt(nodes.size())));
+        }
+
+        double[] expected = new DistanceMatrix<Node, Link>(1).compute(sources, targets);
+        for (int parallelism = 2; parallelism <= 8; parallelism *= 2) {
+            assertArrayEquals(expected, new DistanceMatrix<Node, Link>(parallelism).compute(sources, targets), 0.0);
+
+            List<Integer> order = new ArrayList<>();
+            new DistanceMatrix<Node, Link>(parallelism).compute(sources, targets, (sourceIndex, row) -> {
+                assertEquals(order.size(), sourceIndex);
+                order.add(sourceIndex);
+            });
+            assertEquals(sources.size(), order.size());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package algorithms;
+
+import data_structures.graph.Edge;
+import data_structures.graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal directed graph for the shortest-path tests.
+ *
+ * @version 1.0
+ */
+final class TestGraph {
+
+    private TestGraph() {
+    }
+
+    /**
+     * Adds a directed edge between two nodes.
+     *
+     * @param start  The start of the edge.
+     * @param end    The end of the edge.
+     * @param weight The edge's weight.
+     * @return The edge.
+     */
+    static Link link(Node start, Node end, double weight) {
+        Link link = new Link(start, end, weight);
+        start.addEdge(link);
+        return link;
+    }
+
+    /**
+     * A vertex named by its ID.
+     */
+    static final class Node implements Vertex<Link> {
+        private final String id;
+        private final List<Link> edges = new ArrayList<>();
+
+        Node(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getID() {
+            return id;
+        }
+
+        @Override
+        public List<Link> getEdges() {
+            return edges;
+        }
+
+        @Override
+        public void addEdge(Link edge) {
+            edges.add(edge);
+        }
+
+        @Override
+        public void removeEdge(Link edge) {
+            edges.remove(edge);
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * A weighted directed edge.
+     */
+    static final class Link implements Edge<Node> {
+        private final Node start;
+        private final Node end;
+        private double weight;
+
+        Link(Node start, Node end, double weight) {
+            this.start = start;
+            this.end = end;
+            this.weight = weight;
+        }
+
+        void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        @Override
+        public double getWeight() {
+            return weight;
+        }
+
+        @Override
+        public Node getStart() {
+            return start;
+        }
+
+        @Override
+        public Node getEnd() {
+            return end;
+        }
+
+        @Override
+        public Node getOpposite(Node curr) {
+            return curr == start ? end : start;
+        }
+
+        @Override
+        public String getEdgeLabel() {
+            return start.getID() + end.getID();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package algorithms.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the packed 4-bit counters of {@link FrequencySketch}.
+ *
+ * @version 1.0
+ */
+public class FrequencySketchTest {
+
+    @Test
+    public void countsUpToFifteenAndSaturates() {
+        FrequencySketch sketch = new FrequencySketch(1_000);
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment("hot");
+            assertEquals(Math.min(i, 15), sketch.frequency("hot"));
+        }
+    }
+
+    @Test
+    public void saturatedCountersDoNotSpillIntoTheirNeighbors() {
+        FrequencySketch sketch = new FrequencySketch(1_000);
+        for (int key = 0; key < 50; key++) {
+            for (int i = 0; i < 20; i++) {
+                sketch.increment(key);
+            }
+        }
+        for (int key = 0; key < 50; key++) {
+            assertEquals(15, sketch.frequency(key));
+        }
+        // With a handful of keys in a wide sketch, an unseen key almost surely shares no counter in some row.
+        int unseenTotal = 0;
+        for (int key = 1_000; key < 1_100; key++) {
+            unseenTotal += sketch.frequency(key);
+        }
+        assertTrue(unseenTotal < 15);
+    }
+
+    @Test
+    public void agingHalvesEveryCounter() {
+        // The smallest sketch is 16 counters wide, and ages after 160 additions.
+        FrequencySketch sketch = new FrequencySketch(1);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("a");
+        }
+        assertEquals(15, sketch.frequency("a"));
+        int additions = 15;
+        while (additions < 159) {
+            sketch.increment(additions++);
+        }
+        int before = sketch.frequency("a");
+        sketch.increment(additions);
+        assertEquals(before / 2, sketch.frequency("a"));
+    }
+}
@@ -0,0 +1,45 @@
+package data_structures.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link PiecewiseLinearProfile}, in particular that only FIFO profiles are accepted.
+ *
+ * @version 1.0
+ */
+public class PiecewiseLinearProfileTest {
+
+    @Test
+    public void interpolatesAndWrapsAround() {
+        PiecewiseLinearProfile profile = new PiecewiseLinearProfile(new double[]{0, 10}, new double[]{4, 8}, 20);
+        assertEquals(6, profile.evaluate(5), 1e-9);
+        assertEquals(6, profile.evaluate(15), 1e-9);
+        assertEquals(6, profile.evaluate(-5), 1e-9);
+    }
+
+    @Test
+    public void acceptsASlopeOfExactlyMinusOne() {
+        PiecewiseLinearProfile profile = new PiecewiseLinearProfile(new double[]{0, 10}, new double[]{10, 0}, 100);
+        // Entering at 0 or at 10 both arrive at 10.
+        assertEquals(10, 0 + profile.evaluate(0), 1e-9);
+        assertEquals(10, 10 + profile.evaluate(10), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASteepDrop() {
+        new PiecewiseLinearProfile(new double[]{0, 10}, new double[]{30, 0}, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASteepDropInTheWrapAroundSegment() {
+        // Rises gently inside the period, then falls from 30 to 0 in the 10 units wrapping from 90 back to 0.
+        new PiecewiseLinearProfile(new double[]{0, 90}, new double[]{0, 30}, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNaNValues() {
+        new PiecewiseLinearProfile(new double[]{0}, new double[]{Double.NaN}, 100);
+    }
+}
@@ -0,0 +1,182 @@
+package data_structures.kd_tree;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the dual-tree operations of {@link PackedKDTree} against brute force, on trees small enough to be
+ * sequential and large enough to be split for parallelism. One coordinate is rounded so that many points tie.
+ *
+ * @version 1.0
+ */
+public class PackedKDTreeTest {
+    private static final int[] SIZES = {0, 1, 2, 17, 100, 900, 6_000};
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void spatialJoinFindsExactlyThePairsWithinTheRadius() {
+        Random random = new Random(3);
+        for (int n : SIZES) {
+            for (int m : new int[]{1, 50, 5_000}) {
+                PackedKDTree<Point> a = new KDTree<>(randomPoints(random, n), 1).pack();
+                PackedKDTree<Point> b = new KDTree<>(randomPoints(random, m), 1).pack();
+                double radius = random.nextDouble() * 5;
+                NeighborPairs pairs = a.spatialJoin(b, radius);
+
+                Set<Long> found = new HashSet<>();
+                for (int i = 0; i < pairs.size(); i++) {
+                    assertTrue(found.add((long) pairs.getSource(i) * m + pairs.getTarget(i)));
+                    assertEquals(distance(a.getNode(pairs.getSource(i)), b.getNode(pairs.getTarget(i))),
+                            pairs.getDistance(i), EPSILON);
+                }
+                int expected = 0;
+                for (int x = 0; x < n; x++) {
+                    for (int y = 0; y < m; y++) {
+                        if (distance(a.getNode(x), b.getNode(y)) <= radius) {
+                            expected++;
+                            assertTrue(found.contains((long) x * m + y));
+                        }
+                    }
+                }
+                assertEquals(expected, pairs.size());
+            }
+        }
+    }
+
+    @Test
+    public void selfJoinPairsEveryNodeWithItself() {
+        PackedKDTree<Point> tree = new KDTree<>(randomPoints(new Random(4), 500), 1).pack();
+        NeighborPairs pairs = tree.spatialJoin(tree, 0.0);
+        Set<Integer> selfPaired = new HashSet<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            if (pairs.getSource(i) == pairs.getTarget(i)) {
+                selfPaired.add(pairs.getSource(i));
+            }
+        }
+        assertEquals(tree.getSize(), selfPaired.size());
+    }
+
+    @Test
+    public void allKNearestNeighborsMatchBruteForce() {
+        Random random = new Random(5);
+        for (int n : SIZES) {
+            PackedKDTree<Point> tree = new KDTree<>(randomPoints(random, n), 1).pack();
+            int[] ks = {1, 5, 30};
+            NeighborPairs[] pairs = new NeighborPairs[ks.length];
+            int[] nextPair = new int[ks.length];
+            for (int i = 0; i < ks.length; i++) {
+                pairs[i] = tree.findAllKNearestNeighbors(ks[i]);
+            }
+            for (int x = 0; x < n; x++) {
+                double[] distances = new double[n - 1];
+                for (int y = 0, i = 0; y < n; y++) {
+                    if (y != x) {
+                        distances[i++] = distance(tree.getNode(x), tree.getNode(y));
+                    }
+                }
+                Arrays.sort(distances);
+                for (int i = 0; i < ks.length; i++) {
+                    for (int j = 0; j < Math.min(ks[i], distances.length); j++, nextPair[i]++) {
+                        assertEquals(x, pairs[i].getSource(nextPair[i]));
+                        assertNotEquals(x, pairs[i].getTarget(nextPair[i]));
+                        assertEquals(distances[j], pairs[i].getDistance(nextPair[i]), EPSILON);
+                    }
+                }
+            }
+            for (int i = 0; i < ks.length; i++) {
+                assertEquals(nextPair[i], pairs[i].size());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositiveK() {
+        new KDTree<>(randomPoints(new Random(6), 10), 1).pack().findAllKNearestNeighbors(0);
+    }
+
+    private static List<Point> randomPoints(Random random, int count) {
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(Math.floor(random.nextDouble() * 40), random.nextDouble() * 100));
+        }
+        return points;
+    }
+
+    private static double distance(KDNode a, KDNode b) {
+        double squared = 0.0;
+        for (int d = 0; d < a.getCoordinate().length; d++) {
+            double difference = a.getCoordinate()[d] - b.getCoordinate()[d];
+            squared += difference * difference;
+        }
+        return Math.sqrt(squared);
+    }
+
+    /**
+     * A two-dimensional point.
+     */
+    private static final class Point implements KDNode {
+        private KDNode leftChild;
+        private KDNode rightChild;
+        private double[] coordinate;
+        private String data = "";
+
+        Point(double x, double y) {
+            this.coordinate = new double[]{x, y};
+        }
+
+        @Override
+        public KDNode getLeftChild() {
+            return leftChild;
+        }
+
+        @Override
+        public void setLeftChild(KDNode leftChild) {
+            this.leftChild = leftChild;
+        }
+
+        @Override
+        public KDNode getRightChild() {
+            return rightChild;
+        }
+
+        @Override
+        public void setRightChild(KDNode rightChild) {
+            this.rightChild = rightChild;
+        }
+
+        @Override
+        public double[] getCoordinate() {
+            return coordinate;
+        }
+
+        @Override
+        public void setCoordinate(double[] coordinate) {
+            this.coordinate = coordinate;
+        }
+
+        @Override
+        public String getData() {
+            return data;
+        }
+
+        @Override
+        public void setData(String data) {
+            this.data = data;
+        }
+
+        @Override
+        public void printContents() {
+            System.out.println(data);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package data_structures.segment_tree;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks {@link DoubleSegmentTree} against a plain array under random range updates and queries, for each provided
+ * monoid. Values are small integers, so sums are exact.
+ *
+ * @version 1.0
+ */
+public class DoubleSegmentTreeTest {
+    private static final DoubleMonoid[] MONOIDS = {DoubleMonoid.SUM, DoubleMonoid.MIN, DoubleMonoid.MAX};
+
+    @Test
+    public void randomOperationsMatchAPlainArray() {
+        Random random = new Random(6);
+        for (DoubleMonoid monoid : MONOIDS) {
+            for (int trial = 0; trial < 50; trial++) {
+                int n = 1 + random.nextInt(100);
+                double[] expected = new double[n];
+                DoubleSegmentTree tree = new DoubleSegmentTree(expected, monoid);
+                for (int op = 0; op < 500; op++) {
+                    int from = random.nextInt(n + 1);
+                    int to = from + random.nextInt(n + 1 - from);
+                    double value = random.nextInt(100) - 50;
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            tree.rangeAdd(from, to, value);
+                            for (int i = from; i < to; i++) {
+                                expected[i] += value;
+                            }
+                            break;
+                        case 1:
+                            tree.rangeAssign(from, to, value);
+                            for (int i = from; i < to; i++) {
+                                expected[i] = value;
+                            }
+                            break;
+                        case 2:
+                            int index = random.nextInt(n);
+                            tree.set(index, value);
+                            expected[index] = value;
+                            break;
+                        default:
+                            double range = monoid.identity();
+                            for (int i = from; i < to; i++) {
+                                range = monoid.combine(range, expected[i]);
+                            }
+                            assertEquals(range, tree.query(from, to), 0.0);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package data_structures.segment_tree;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks {@link LongSegmentTree} against a plain array under random mixes of range and batch updates and queries,
+ * for each provided monoid.
+ *
+ * @version 1.0
+ */
+public class LongSegmentTreeTest {
+    private static final LongMonoid[] MONOIDS = {LongMonoid.SUM, LongMonoid.MIN, LongMonoid.MAX};
+
+    @Test
+    public void randomOperationsMatchAPlainArray() {
+        Random random = new Random(5);
+        for (LongMonoid monoid : MONOIDS) {
+            for (int trial = 0; trial < 50; trial++) {
+                int n = 1 + random.nextInt(100);
+                long[] expected = new long[n];
+                for (int i = 0; i < n; i++) {
+                    expected[i] = random.nextInt(100) - 50;
+                }
+                LongSegmentTree tree = new LongSegmentTree(expected, monoid);
+                for (int op = 0; op < 500; op++) {
+                    applyRandomOperation(random, monoid, tree, expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parallelBuildMatchesAPlainArray() {
+        // Large enough that the widest levels are built in parallel chunks.
+        Random random = new Random(7);
+        long[] values = new long[300_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1_000);
+        }
+        for (LongMonoid monoid : MONOIDS) {
+            LongSegmentTree tree = new LongSegmentTree(values, monoid);
+            for (int query = 0; query < 20; query++) {
+                int from = random.nextInt(values.length);
+                int to = from + random.nextInt(values.length - from + 1);
+                long expected = monoid.identity();
+                for (int i = from; i < to; i++) {
+                    expected = monoid.combine(expected, values[i]);
+                }
+                assertEquals(expected, tree.query(from, to));
+            }
+        }
+    }
+
+    @Test
+    public void emptyRangesAggregateToTheIdentity() {
+        LongSegmentTree tree = new LongSegmentTree(8, 3, LongMonoid.MIN);
+        assertEquals(LongMonoid.MIN.identity(), tree.query(4, 4));
+        assertEquals(3, tree.queryAll());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsRangesOutsideTheTree() {
+        new LongSegmentTree(8, 0, LongMonoid.SUM).query(0, 9);
+    }
+
+    private static void applyRandomOperation(Random random, LongMonoid monoid, LongSegmentTree tree,
+                                             long[] expected) {
+        int n = expected.length;
+        int from = random.nextInt(n + 1);
+        int to = random.nextInt(n + 1);
+        if (from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+        long value = random.nextInt(100) - 50;
+        switch (random.nextInt(6)) {
+            case 0:
+                tree.rangeAdd(from, to, value);
+                for (int i = from; i < to; i++) {
+                    expected[i] += value;
+                }
+                break;
+            case 1:
+                tree.rangeAssign(from, to, value);
+                for (int i = from; i < to; i++) {
+                    expected[i] = value;
+                }
+                break;
+            case 2:
+                int count = random.nextInt(5);
+                int[] indices = new int[count];
+                long[] values = new long[count];
+                for (int j = 0; j < count; j++) {
+                    indices[j] = random.nextInt(n);
+                    values[j] = random.nextInt(100);
+                }
+                if (random.nextBoolean()) {
+                    tree.setAll(indices, values);
+                    for (int j = 0; j < count; j++) {
+                        expected[indices[j]] = values[j];
+                    }
+                } else {
+                    tree.addAll(indices, values);
+                    for (int j = 0; j < count; j++) {
+                        expected[indices[j]] += values[j];
+                    }
+                }
+                break;
+            case 3:
+                int index = random.nextInt(n);
+                assertEquals(expected[index], tree.get(index));
+                break;
+            default:
+                long range = monoid.identity();
+                for (int i = from; i < to; i++) {
+                    range = monoid.combine(range, expected[i]);
+                }
+                assertEquals(range, tree.query(from, to));
+                long all = monoid.identity();
+                for (long element : expected) {
+                    all = monoid.combine(all, element);
+                }
+                assertEquals(all, tree.queryAll());
+        }
+    }
+}
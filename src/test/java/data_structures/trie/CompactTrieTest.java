@@ -0,0 +1,95 @@
+package data_structures.trie;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks {@link CompactTrie} against a {@link TreeSet} on random keys, both in memory and after a save/load round
+ * trip through a memory-mapped file.
+ *
+ * @version 1.0
+ */
+public class CompactTrieTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void inMemoryAndLoadedTriesMatchASortedSet() throws IOException {
+        Random random = new Random(7);
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            words.add(randomWord(random, 8, 4));
+        }
+        List<String> keys = new ArrayList<>(words);
+        // Duplicates in the sorted input are counted once.
+        keys.add(5, keys.get(5));
+        CompactTrie trie = CompactTrie.fromSorted(keys);
+        Path file = folder.newFile("words.trie").toPath();
+        trie.save(file);
+
+        for (CompactTrie candidate : new CompactTrie[]{trie, CompactTrie.load(file)}) {
+            assertEquals(words.size(), candidate.size());
+            assertEquals(trie.getNodeCount(), candidate.getNodeCount());
+            for (int i = 0; i < 500; i++) {
+                // A fifth letter that no key uses makes some queries miss.
+                String query = randomWord(random, 9, 5);
+                assertEquals(words.contains(query), candidate.find(query));
+                String ceiling = words.ceiling(query);
+                assertEquals(ceiling != null && ceiling.startsWith(query), candidate.isPrefix(query));
+                assertEquals(words.stream().filter(word -> word.startsWith(query)).collect(Collectors.toList()),
+                        candidate.streamWithPrefix(query).collect(Collectors.toList()));
+                String pattern = query.replace('b', '.');
+                assertEquals(words.stream().anyMatch(word -> word.matches(pattern)), candidate.findRegex(pattern));
+            }
+        }
+    }
+
+    @Test
+    public void emptyTrieRoundTrips() throws IOException {
+        Path file = folder.newFile("empty.trie").toPath();
+        CompactTrie.fromSorted(Collections.<String>emptyList()).save(file);
+        CompactTrie loaded = CompactTrie.load(file);
+        assertEquals(0, loaded.size());
+        assertFalse(loaded.find(""));
+        assertFalse(loaded.isPrefix("a"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsATruncatedFile() throws IOException {
+        Random random = new Random(8);
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < 100; i++) {
+            words.add(randomWord(random, 6, 3));
+        }
+        Path file = folder.newFile("truncated.trie").toPath();
+        CompactTrie.fromSorted(new ArrayList<>(words)).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        CompactTrie.load(file);
+    }
+
+    private static String randomWord(Random random, int maxLength, int alphabet) {
+        int length = random.nextInt(maxLength);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return word.toString();
+    }
+}
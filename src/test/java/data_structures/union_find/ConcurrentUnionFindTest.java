@@ -0,0 +1,192 @@
+package data_structures.union_find;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConcurrentUnionFind}, mostly under concurrent unions checked against {@link ArrayUnionFind}.
+ *
+ * @version 1.0
+ */
+public class ConcurrentUnionFindTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void unionsOnOneThreadMatchSequentialUnionFind() {
+        Random random = new Random(1);
+        int size = 1_000;
+        UnionFind expected = new ArrayUnionFind(size);
+        UnionFind actual = new ConcurrentUnionFind(size);
+        for (int i = 0; i < 800; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            assertEquals(expected.union(x, y), actual.union(x, y));
+        }
+        assertSamePartition(expected, actual);
+    }
+
+    @Test
+    public void concurrentUnionsOfDisjointEdgesMatchSequentialUnionFind() throws Exception {
+        Random random = new Random(2);
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = 20_000;
+            int[][] edges = randomEdges(random, size, size);
+            UnionFind expected = new ArrayUnionFind(size);
+            for (int[] edge : edges) {
+                expected.union(edge[0], edge[1]);
+            }
+
+            UnionFind actual = new ConcurrentUnionFind(size);
+            long successfulUnions = runConcurrently(thread -> {
+                long merged = 0;
+                for (int i = thread; i < edges.length; i += THREADS) {
+                    if (actual.union(edges[i][0], edges[i][1])) {
+                        merged++;
+                    }
+                }
+                return merged;
+            });
+
+            assertSamePartition(expected, actual);
+            assertEquals(expected.getSetCount(), actual.getSetCount());
+            assertEquals(size - actual.getSetCount(), successfulUnions);
+        }
+    }
+
+    @Test
+    public void racingUnionsOfTheSameEdgesMergeEachPairExactlyOnce() throws Exception {
+        Random random = new Random(3);
+        for (int round = 0; round < ROUNDS; round++) {
+            // A small universe and every thread unioning every edge maximizes contention on the same roots.
+            int size = 256;
+            int[][] edges = randomEdges(random, size, 2 * size);
+            UnionFind expected = new ArrayUnionFind(size);
+            for (int[] edge : edges) {
+                expected.union(edge[0], edge[1]);
+            }
+
+            UnionFind actual = new ConcurrentUnionFind(size);
+            long successfulUnions = runConcurrently(thread -> {
+                long merged = 0;
+                for (int i = 0; i < edges.length; i++) {
+                    int[] edge = edges[(i + thread * 31) % edges.length];
+                    if (actual.union(edge[0], edge[1])) {
+                        merged++;
+                    }
+                }
+                return merged;
+            });
+
+            assertSamePartition(expected, actual);
+            assertEquals(size - expected.getSetCount(), successfulUnions);
+        }
+    }
+
+    @Test
+    public void connectivityNeverRegressesWhileUnionsRun() throws Exception {
+        int size = 10_000;
+        UnionFind unionFind = new ConcurrentUnionFind(size);
+        // Half the threads chain every element to its successor; the others watch the chain's ends meet.
+        long regressions = runConcurrently(thread -> {
+            long seenRegressions = 0;
+            if (thread % 2 == 0) {
+                for (int i = thread / 2; i < size - 1; i += THREADS / 2) {
+                    unionFind.union(i, i + 1);
+                }
+            } else {
+                boolean connected = false;
+                for (int i = 0; i < 100_000; i++) {
+                    boolean now = unionFind.isConnected(0, size - 1);
+                    if (connected && !now) {
+                        seenRegressions++;
+                    }
+                    connected |= now;
+                }
+            }
+            return seenRegressions;
+        });
+        assertEquals(0, regressions);
+        assertTrue(unionFind.isConnected(0, size - 1));
+        assertEquals(1, unionFind.getSetCount());
+    }
+
+    @Test
+    public void findReturnsARootThatIsItsOwnRepresentative() {
+        UnionFind unionFind = new ConcurrentUnionFind(4);
+        assertTrue(unionFind.union(0, 1));
+        assertFalse(unionFind.union(1, 0));
+        int root = unionFind.find(0);
+        assertEquals(root, unionFind.find(root));
+        assertEquals(root, unionFind.find(1));
+        assertFalse(unionFind.isConnected(0, 2));
+    }
+
+    /**
+     * Runs a task on every thread at once, released together by a latch.
+     *
+     * @param task The task, given its thread number.
+     * @return The sum of the tasks' results.
+     */
+    private static long runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                Callable<Long> callable = () -> {
+                    start.await();
+                    return task.run(threadNumber);
+                };
+                results.add(executor.submit(callable));
+            }
+            start.countDown();
+            long sum = 0;
+            for (Future<Long> result : results) {
+                sum += result.get();
+            }
+            return sum;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int[][] randomEdges(Random random, int size, int count) {
+        int[][] edges = new int[count][];
+        for (int i = 0; i < count; i++) {
+            edges[i] = new int[]{random.nextInt(size), random.nextInt(size)};
+        }
+        return edges;
+    }
+
+    private static void assertSamePartition(UnionFind expected, UnionFind actual) {
+        assertEquals(expected.size(), actual.size());
+        // Two partitions are equal iff each element shares a set with its expected representative, both ways.
+        for (int i = 0; i < expected.size(); i++) {
+            int expectedRoot = expected.find(i);
+            int actualRoot = actual.find(i);
+            assertTrue(actual.isConnected(i, expectedRoot));
+            assertTrue(expected.isConnected(i, actualRoot));
+        }
+    }
+
+    /**
+     * A task run by one of several threads.
+     */
+    private interface ThreadTask {
+        long run(int thread) throws Exception;
+    }
+}